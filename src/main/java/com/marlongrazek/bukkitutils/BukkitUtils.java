@@ -1,34 +1,115 @@
 package com.marlongrazek.bukkitutils;
 
+import org.bukkit.Bukkit;
+import org.bukkit.command.PluginCommand;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.java.JavaPlugin;
 
-public final class BukkitUtils {
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+public final class BukkitUtils extends JavaPlugin implements Listener {
+
+    private static final long ITEM_CACHE_WEIGHT = 32L * 1024 * 1024;
+
+    private static ExperienceTable experienceTable = new ExperienceTable(ExperienceTable.MAX_LEVEL);
+
+    private ItemCache itemCache;
+
+    @Override
+    public void onEnable() {
+
+        // one cache for all plugins, dependents get it from the services manager
+        itemCache = new ItemCache(ITEM_CACHE_WEIGHT);
+        getServer().getServicesManager().register(ItemCache.class, itemCache, this, ServicePriority.Normal);
+        getServer().getPluginManager().registerEvents(this, this);
+
+        PluginCommand command = getCommand("bukkitutils");
+        if (command == null) return;
+        BukkitUtilsCommand executor = new BukkitUtilsCommand(itemCache);
+        command.setExecutor(executor);
+        command.setTabCompleter(executor);
+    }
+
+    @Override
+    public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+        itemCache = null;
+    }
+
+    @EventHandler
+    public void onPluginDisable(PluginDisableEvent event) {
+        if (itemCache != null) itemCache.invalidateAll(event.getPlugin());
+    }
+
+    public static ItemCache getItemCache() {
+        return Bukkit.getServicesManager().load(ItemCache.class);
+    }
+
+    public static void setExperienceTable(ExperienceTable experienceTable) {
+        BukkitUtils.experienceTable = experienceTable;
+    }
 
     public static void setPlayerExperience(Player player, int experience) {
 
-        player.setExp(0);
-        player.setLevel(0);
+        ExperienceTable table = experienceTable;
+
+        experience = Math.max(0, experience);
+        int level = table.getLevelAtExperience(experience);
 
-        addPlayerExperience(player, experience);
+        player.setLevel(level);
+        player.setExp((float) (experience - table.getExperienceAtLevel(level)) / ExperienceTable.getExperienceToNextLevel(level));
+        player.setTotalExperience(experience);
     }
 
     public static void addPlayerExperience(Player player, int experience) {
-        player.giveExp(experience);
+        addPlayerExperience(player, (long) experience);
     }
 
     public static void removePlayerExperience(Player player, int experience) {
+        addPlayerExperience(player, -(long) experience);
+    }
 
-        if (player.getExp() == 0) return;
+    private static void addPlayerExperience(Player player, long experience) {
+        long total = getTotalExperience(player) + experience;
+        setPlayerExperience(player, (int) Math.max(0, Math.min(Integer.MAX_VALUE, total)));
+    }
 
-        while (experience > player.getExpToLevel() * player.getExp()) {
-            experience -= player.getExpToLevel() * player.getExp();
-            if (player.getLevel() > 0) {
-                player.setLevel(player.getLevel() - 1);
-                player.setExp(1);
-            }
-        }
+    // computed from level and progress, Player#getTotalExperience is not lowered when experience is spent on enchanting
+    public static int getTotalExperience(Player player) {
+        int level = player.getLevel();
+        long experience = experienceTable.getExperienceAtLevel(level)
+                + Math.round(player.getExp() * ExperienceTable.getExperienceToNextLevel(level));
+        return (int) Math.min(Integer.MAX_VALUE, experience);
+    }
+
+    // bulk operations write each player once, even if they are listed multiple times
+    public static void addPlayerExperience(Collection<? extends Player> players, int experience) {
+        Map<Player, Long> deltas = new LinkedHashMap<>();
+        for (Player player : players) deltas.merge(player, (long) experience, Long::sum);
+        deltas.forEach(BukkitUtils::addPlayerExperience);
+    }
+
+    public static void removePlayerExperience(Collection<? extends Player> players, int experience) {
+        addPlayerExperience(players, -experience);
+    }
+
+    public static void addPlayerExperience(Map<? extends Player, Integer> experience) {
+        experience.forEach((player, delta) -> addPlayerExperience(player, (long) delta));
+    }
 
-        float newExp = player.getExpToLevel() * player.getExp() - experience;
-        player.setExp(newExp / player.getExpToLevel());
+    // runs tasks on the server thread, right away if already there
+    public static Executor getMainThreadExecutor(Plugin plugin) {
+        return task -> {
+            if (Bukkit.isPrimaryThread()) task.run();
+            else Bukkit.getScheduler().runTask(plugin, task);
+        };
     }
 }
@@ -0,0 +1,93 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+final class BukkitUtilsCommand implements CommandExecutor, TabCompleter {
+
+    private static final List<String> OPTIONS = List.of("on", "off", "reset");
+
+    private final ItemCache itemCache;
+
+    BukkitUtilsCommand(ItemCache itemCache) {
+        this.itemCache = itemCache;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+
+        if (args.length == 0 || !args[0].equalsIgnoreCase("stats")) return false;
+
+        if (args.length > 1) {
+            switch (args[1].toLowerCase(Locale.ROOT)) {
+                case "on":
+                    ItemMetrics.setEnabled(true);
+                    break;
+                case "off":
+                    ItemMetrics.setEnabled(false);
+                    break;
+                case "reset":
+                    ItemMetrics.reset();
+                    break;
+                default:
+                    return false;
+            }
+        }
+
+        sendStats(sender);
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 1) return "stats".startsWith(args[0].toLowerCase(Locale.ROOT)) ? List.of("stats") : Collections.emptyList();
+        if (args.length != 2 || !args[0].equalsIgnoreCase("stats")) return Collections.emptyList();
+
+        List<String> options = new ArrayList<>();
+        for (String option : OPTIONS) if (option.startsWith(args[1].toLowerCase(Locale.ROOT))) options.add(option);
+        return options;
+    }
+
+    private void sendStats(CommandSender sender) {
+
+        sender.sendMessage(ChatColor.GOLD + "Item metrics are " + (ItemMetrics.isEnabled() ? "enabled" : "disabled"));
+
+        ItemMetrics.getBuildStats().values().forEach(stats -> sender.sendMessage(ChatColor.GRAY + stats.getName() + ": "
+                + ChatColor.WHITE + stats.getCount() + " builds, p50 " + formatNanos(stats.getPercentileNanos(50))
+                + ", p99 " + formatNanos(stats.getPercentileNanos(99))
+                + ", max " + formatNanos(stats.getMaxNanos())
+                + ", total " + formatNanos(stats.getTotalNanos())));
+
+        sender.sendMessage(ChatColor.GRAY + "Meta copies: " + ChatColor.WHITE + ItemMetrics.getMetaCopies());
+
+        ItemMetrics.getCacheStats().values().forEach(stats -> sender.sendMessage(ChatColor.GRAY + "Cache " + stats.getName() + ": "
+                + ChatColor.WHITE + String.format(Locale.ROOT, "%.1f%%", stats.getHitRate() * 100)
+                + " hits (" + stats.getHits() + "/" + (stats.getHits() + stats.getMisses()) + ")"));
+
+        sender.sendMessage(ChatColor.GRAY + "Item cache: " + ChatColor.WHITE + itemCache.size() + " items, "
+                + formatBytes(itemCache.getWeight()) + " of " + formatBytes(itemCache.getMaximumWeight()));
+        itemCache.getWeights().forEach((namespace, weight) -> sender.sendMessage(ChatColor.GRAY + "  " + namespace + ": "
+                + ChatColor.WHITE + formatBytes(weight)));
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + "B";
+        if (bytes < 1024 * 1024) return String.format(Locale.ROOT, "%.1fKB", bytes / 1024.0);
+        return String.format(Locale.ROOT, "%.1fMB", bytes / (1024.0 * 1024));
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) return nanos + "ns";
+        if (nanos < 1_000_000) return String.format(Locale.ROOT, "%.1fus", nanos / 1e3);
+        if (nanos < 1_000_000_000) return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+        return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+    }
+}
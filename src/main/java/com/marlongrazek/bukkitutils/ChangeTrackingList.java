@@ -0,0 +1,47 @@
+package com.marlongrazek.bukkitutils;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+// a writable view that reports every change, so lists handed out by the getters keep hashes and builds in sync
+final class ChangeTrackingList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final List<E> list;
+    private final Runnable changed;
+
+    ChangeTrackingList(List<E> list, Runnable changed) {
+        this.list = list;
+        this.changed = changed;
+    }
+
+    @Override
+    public E get(int index) {
+        return list.get(index);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        changed.run();
+        return list.set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        changed.run();
+        modCount++;
+        list.add(index, element);
+    }
+
+    @Override
+    public E remove(int index) {
+        changed.run();
+        modCount++;
+        return list.remove(index);
+    }
+}
@@ -0,0 +1,79 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ColorCodes {
+
+    private static final String CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+
+    private static final ItemMetrics.CacheStats stats = ItemMetrics.getCache("color-codes");
+    private static volatile LruCache<String, String> cache = new LruCache<>(4096);
+
+    private ColorCodes() {
+    }
+
+    public static void setCacheSize(int maximumSize) {
+        cache = new LruCache<>(maximumSize);
+    }
+
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    // translates &-codes and &#RRGGBB hex colors, every distinct text is only parsed once
+    public static String translate(String text) {
+        if (text == null || text.indexOf('&') < 0) return text;
+
+        LruCache<String, String> cache = ColorCodes.cache;
+        String translated = cache.get(text);
+        if (translated != null) {
+            stats.hit();
+            return translated;
+        }
+        stats.miss();
+
+        translated = render(text);
+        cache.put(text, translated);
+        return translated;
+    }
+
+    public static List<String> translate(List<String> lines) {
+        List<String> translated = new ArrayList<>(lines.size());
+        for (String line : lines) translated.add(translate(line));
+        return translated;
+    }
+
+    static String render(String text) {
+        StringBuilder builder = new StringBuilder(text.length() + 16);
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '&' || i + 1 == text.length()) {
+                builder.append(c);
+                continue;
+            }
+
+            char code = text.charAt(i + 1);
+            if (code == '#' && isHex(text, i + 2, i + 8)) {
+                // the legacy form of a hex color is an x code followed by one code per digit
+                builder.append(ChatColor.COLOR_CHAR).append('x');
+                for (int digit = i + 2; digit < i + 8; digit++)
+                    builder.append(ChatColor.COLOR_CHAR).append(Character.toLowerCase(text.charAt(digit)));
+                i += 7;
+            } else if (CODES.indexOf(code) >= 0) {
+                builder.append(ChatColor.COLOR_CHAR).append(Character.toLowerCase(code));
+                i++;
+            } else builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private static boolean isHex(String text, int start, int end) {
+        if (end > text.length()) return false;
+        for (int i = start; i < end; i++) if (Character.digit(text.charAt(i), 16) < 0) return false;
+        return true;
+    }
+}
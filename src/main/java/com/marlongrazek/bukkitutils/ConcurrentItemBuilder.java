@@ -0,0 +1,63 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public final class ConcurrentItemBuilder<T extends ItemBuilder> {
+
+    private final AtomicReference<T> current;
+
+    public ConcurrentItemBuilder(T builder) {
+        this.current = new AtomicReference<>(copyOf(builder));
+    }
+
+    // a private copy of the current version, changes to it are not published
+    public T get() {
+        return copyOf(current.get());
+    }
+
+    // every update works on a copy of the current version and retries if another update won
+    public void update(Consumer<? super T> update) {
+        while (true) {
+            T version = current.get();
+            T next = copyOf(version);
+            update.accept(next);
+            if (current.compareAndSet(version, next)) return;
+        }
+    }
+
+    // building only reads the published version, so it needs no copy
+    public ItemStack toItemStack() {
+        return current.get().toItemStack();
+    }
+
+    // setters
+    public void setAmount(int amount) {
+        update(builder -> builder.setAmount(amount));
+    }
+
+    public void setName(String name) {
+        update(builder -> builder.setName(name));
+    }
+
+    public void addLoreLines(String... lines) {
+        update(builder -> builder.addLoreLines(lines));
+    }
+
+    public void addEnchantment(Enchantment enchantment, Integer level) {
+        update(builder -> builder.addEnchantment(enchantment, level));
+    }
+
+    public void addItemFlag(ItemFlag itemFlag) {
+        update(builder -> builder.addItemFlag(itemFlag));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends ItemBuilder> T copyOf(T builder) {
+        return (T) builder.copy();
+    }
+}
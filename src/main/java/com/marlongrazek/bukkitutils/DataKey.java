@@ -0,0 +1,112 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Objects;
+
+// created once and kept in a constant, so lookups don't allocate a new NamespacedKey every time
+public final class DataKey<T, Z> {
+
+    private final NamespacedKey key;
+    private final PersistentDataType<T, Z> type;
+
+    private DataKey(NamespacedKey key, PersistentDataType<T, Z> type) {
+        this.key = key;
+        this.type = type;
+    }
+
+    public static <T, Z> DataKey<T, Z> of(Plugin plugin, String key, PersistentDataType<T, Z> type) {
+        return new DataKey<>(new NamespacedKey(plugin, key), type);
+    }
+
+    public static <T, Z> DataKey<T, Z> of(NamespacedKey key, PersistentDataType<T, Z> type) {
+        return new DataKey<>(key, type);
+    }
+
+    // fast path, items without meta are answered without copying anything
+    public Z get(ItemStack itemStack) {
+        if (itemStack == null || !itemStack.hasItemMeta()) return null;
+        ItemMetrics.recordMetaCopies(1);
+        return get(itemStack.getItemMeta());
+    }
+
+    public boolean has(ItemStack itemStack) {
+        if (itemStack == null || !itemStack.hasItemMeta()) return false;
+        ItemMetrics.recordMetaCopies(1);
+        return has(itemStack.getItemMeta());
+    }
+
+    // reading several keys from one item should share a single meta copy
+    public Z get(ItemMeta meta) {
+        return meta != null ? get(meta.getPersistentDataContainer()) : null;
+    }
+
+    public boolean has(ItemMeta meta) {
+        return meta != null && has(meta.getPersistentDataContainer());
+    }
+
+    public Z get(PersistentDataContainer container) {
+        return container.get(key, type);
+    }
+
+    public boolean has(PersistentDataContainer container) {
+        return container.has(key, type);
+    }
+
+    public Z getOrDefault(ItemStack itemStack, Z defaultValue) {
+        Z value = get(itemStack);
+        return value != null ? value : defaultValue;
+    }
+
+    public void set(PersistentDataContainer container, Z value) {
+        container.set(key, type, value);
+    }
+
+    public void remove(PersistentDataContainer container) {
+        container.remove(key);
+    }
+
+    // values of a builder are stored untyped
+    Z cast(Object value) {
+        if (value != null && !type.getComplexType().isInstance(value))
+            throw new IllegalArgumentException("Value of type " + value.getClass().getName() + " does not fit data key " + key);
+        return type.getComplexType().cast(value);
+    }
+
+    void apply(PersistentDataContainer container, Object value) {
+        if (value == null) container.remove(key);
+        else container.set(key, type, cast(value));
+    }
+
+    // getters
+    public NamespacedKey getKey() {
+        return key;
+    }
+
+    public PersistentDataType<T, Z> getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof DataKey)) return false;
+        DataKey<?, ?> other = (DataKey<?, ?>) object;
+        return key.equals(other.key) && type.equals(other.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, type);
+    }
+
+    @Override
+    public String toString() {
+        return key.toString();
+    }
+}
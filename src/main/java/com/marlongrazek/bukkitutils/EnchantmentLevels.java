@@ -0,0 +1,240 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.enchantments.Enchantment;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+// items rarely carry more than a handful of enchantments, so a linear scan over two arrays beats a boxed map
+final class EnchantmentLevels {
+
+    private static final Enchantment[] NO_ENCHANTMENTS = new Enchantment[0];
+    private static final int[] NO_LEVELS = new int[0];
+
+    private Enchantment[] enchantments = NO_ENCHANTMENTS;
+    private int[] levels = NO_LEVELS;
+    private int size;
+
+    EnchantmentLevels() {
+    }
+
+    EnchantmentLevels(Map<Enchantment, Integer> enchantments) {
+        this.enchantments = new Enchantment[enchantments.size()];
+        this.levels = new int[enchantments.size()];
+        enchantments.forEach(this::put);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(Enchantment enchantment) {
+        return indexOf(enchantment) >= 0;
+    }
+
+    // 0 if the enchantment is not present
+    int get(Enchantment enchantment) {
+        int index = indexOf(enchantment);
+        return index >= 0 ? levels[index] : 0;
+    }
+
+    void put(Enchantment enchantment, int level) {
+        int index = indexOf(enchantment);
+        if (index >= 0) {
+            levels[index] = level;
+            return;
+        }
+
+        if (size == enchantments.length) {
+            int capacity = Math.max(4, size * 2);
+            enchantments = Arrays.copyOf(enchantments, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+        }
+        enchantments[size] = enchantment;
+        levels[size] = level;
+        size++;
+    }
+
+    boolean remove(Enchantment enchantment) {
+        int index = indexOf(enchantment);
+        if (index < 0) return false;
+
+        // keep the insertion order
+        size--;
+        System.arraycopy(enchantments, index + 1, enchantments, index, size - index);
+        System.arraycopy(levels, index + 1, levels, index, size - index);
+        enchantments[size] = null;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(enchantments, 0, size, null);
+        size = 0;
+    }
+
+    void forEach(ObjIntConsumer<Enchantment> action) {
+        for (int i = 0; i < size; i++) action.accept(enchantments[i], levels[i]);
+    }
+
+    Map<Enchantment, Integer> toMap() {
+        Map<Enchantment, Integer> map = new HashMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    // a writable view over the levels, changes through it are reported to changed before they are made
+    Map<Enchantment, Integer> asMap(Runnable changed) {
+        return new MapView(changed);
+    }
+
+    EnchantmentLevels copy() {
+        EnchantmentLevels copy = new EnchantmentLevels();
+        if (size == 0) return copy;
+        copy.enchantments = Arrays.copyOf(enchantments, size);
+        copy.levels = Arrays.copyOf(levels, size);
+        copy.size = size;
+        return copy;
+    }
+
+    // equal to any other instance with the same levels, in any order
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof EnchantmentLevels)) return false;
+        EnchantmentLevels other = (EnchantmentLevels) object;
+        if (size != other.size) return false;
+        for (int i = 0; i < size; i++) {
+            int index = other.indexOf(enchantments[i]);
+            if (index < 0 || other.levels[index] != levels[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < size; i++) hash += enchantments[i].hashCode() ^ levels[i];
+        return hash;
+    }
+
+    private int indexOf(Enchantment enchantment) {
+        for (int i = 0; i < size; i++) if (enchantments[i].equals(enchantment)) return i;
+        return -1;
+    }
+
+    private final class MapView extends AbstractMap<Enchantment, Integer> {
+
+        private final Runnable changed;
+
+        MapView(Runnable changed) {
+            this.changed = changed;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Enchantment && indexOf((Enchantment) key) >= 0;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            if (!(key instanceof Enchantment)) return null;
+            int index = indexOf((Enchantment) key);
+            return index >= 0 ? levels[index] : null;
+        }
+
+        @Override
+        public Integer put(Enchantment enchantment, Integer level) {
+            Integer previous = get(enchantment);
+            changed.run();
+            EnchantmentLevels.this.put(enchantment, level);
+            return previous;
+        }
+
+        @Override
+        public Integer remove(Object key) {
+            Integer previous = get(key);
+            if (previous == null) return null;
+            changed.run();
+            EnchantmentLevels.this.remove((Enchantment) key);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            if (size == 0) return;
+            changed.run();
+            EnchantmentLevels.this.clear();
+        }
+
+        @Override
+        public Set<Entry<Enchantment, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Iterator<Entry<Enchantment, Integer>> iterator() {
+                    return new EntryIterator(changed);
+                }
+            };
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Enchantment, Integer>> {
+
+        private final Runnable changed;
+        private int next;
+        private int last = -1;
+
+        EntryIterator(Runnable changed) {
+            this.changed = changed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<Enchantment, Integer> next() {
+            if (next >= size) throw new NoSuchElementException();
+            last = next++;
+            Enchantment enchantment = enchantments[last];
+            return new AbstractMap.SimpleEntry<>(enchantment, levels[last]) {
+                @Override
+                public Integer setValue(Integer level) {
+                    changed.run();
+                    EnchantmentLevels.this.put(enchantment, level);
+                    return super.setValue(level);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            changed.run();
+            EnchantmentLevels.this.remove(enchantments[last]);
+            next = last;
+            last = -1;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.marlongrazek.bukkitutils;
+
+public final class ExperienceTable {
+
+    // highest level whose total experience still fits into an int
+    public static final int MAX_LEVEL = 21863;
+
+    // totals[level] is the experience needed to reach level from zero
+    private final int[] totals;
+
+    public ExperienceTable(int maxLevel) {
+        if (maxLevel < 0 || maxLevel > MAX_LEVEL)
+            throw new IllegalArgumentException("Max level must be between 0 and " + MAX_LEVEL);
+
+        this.totals = new int[maxLevel + 1];
+        for (int level = 1; level <= maxLevel; level++)
+            totals[level] = totals[level - 1] + getExperienceToNextLevel(level - 1);
+    }
+
+    public int getMaxLevel() {
+        return totals.length - 1;
+    }
+
+    public long getExperienceAtLevel(int level) {
+        return level < totals.length ? totals[level] : calculateExperienceAtLevel(level);
+    }
+
+    public int getLevelAtExperience(int experience) {
+        if (experience >= totals[totals.length - 1] && totals.length <= MAX_LEVEL)
+            return calculateLevelAtExperience(experience);
+
+        // highest level whose total does not exceed the experience
+        int low = 0;
+        int high = totals.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (totals[middle] <= experience) low = middle;
+            else high = middle - 1;
+        }
+        return low;
+    }
+
+    // vanilla experience curve
+    public static int getExperienceToNextLevel(int level) {
+        if (level <= 15) return 2 * level + 7;
+        if (level <= 30) return 5 * level - 38;
+        return 9 * level - 158;
+    }
+
+    static long calculateExperienceAtLevel(int level) {
+        long l = level;
+        if (level <= 16) return l * l + 6 * l;
+        if (level <= 31) return (5 * l * l - 81 * l + 720) / 2;
+        return (9 * l * l - 325 * l + 4440) / 2;
+    }
+
+    static int calculateLevelAtExperience(int experience) {
+
+        int level;
+        if (experience <= 352) level = (int) (Math.sqrt(experience + 9) - 3);
+        else if (experience <= 1507) level = (int) (8.1 + Math.sqrt(0.4 * (experience - 195.975)));
+        else level = (int) (325.0 / 18 + Math.sqrt(2.0 / 9 * (experience - 54215.0 / 72)));
+
+        // correct floating point rounding at level boundaries
+        while (level > 0 && calculateExperienceAtLevel(level) > experience) level--;
+        while (calculateExperienceAtLevel(level + 1) <= experience) level++;
+
+        return level;
+    }
+}
@@ -0,0 +1,62 @@
+package com.marlongrazek.bukkitutils;
+
+// count-min sketch with one byte per counter, capped at 15; all counters are halved periodically, so old popularity fades
+final class FrequencySketch {
+
+    private static final int[] SEEDS = {0x97cb3127, 0xb3e3b2f7, 0x5f2c1f1b, 0x2d4e9b63};
+    private static final int MAXIMUM = 15;
+
+    private byte[] table;
+    private int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedSize) {
+        ensureCapacity(expectedSize);
+    }
+
+    // every counter of the grown table starts at the value of the counter that covered its index before
+    void ensureCapacity(int expectedSize) {
+        int width = Integer.highestOneBit(Math.max(16, Math.min(expectedSize, 1 << 24)) - 1) << 1;
+        if (table != null && table.length >= width) return;
+
+        byte[] table = new byte[width];
+        if (this.table != null)
+            for (int i = 0; i < width; i++) table[i] = this.table[i & (this.table.length - 1)];
+        this.table = table;
+        sampleSize = width * 10;
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAXIMUM;
+        for (int seed : SEEDS) frequency = Math.min(frequency, table[indexOf(hash, seed)]);
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        for (int seed : SEEDS) {
+            int index = indexOf(hash, seed);
+            if (table[index] < MAXIMUM) table[index]++;
+        }
+
+        // saturated counters count as well, otherwise a full table would never be halved
+        if (++additions >= sampleSize) reset();
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) table[i] >>>= 1;
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int seed) {
+        int index = (hash ^ seed) * seed;
+        index ^= index >>> 16;
+        return index & (table.length - 1);
+    }
+
+    private static int spread(int hash) {
+        hash = (hash ^ (hash >>> 16)) * 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+}
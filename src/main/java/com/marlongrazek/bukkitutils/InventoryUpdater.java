@@ -0,0 +1,101 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class InventoryUpdater {
+
+    private final Inventory inventory;
+    private final ItemBuilder[] builders;
+
+    // state of the last update
+    private final ItemBuilder[] renderedBuilders;
+    private final int[] renderedModCounts;
+    private final ItemStack[] renderedItems;
+    private boolean invalidated = true;
+
+    public InventoryUpdater(Inventory inventory) {
+        this.inventory = inventory;
+        this.builders = new ItemBuilder[inventory.getSize()];
+        this.renderedBuilders = new ItemBuilder[builders.length];
+        this.renderedModCounts = new int[builders.length];
+        this.renderedItems = new ItemStack[builders.length];
+    }
+
+    public InventoryUpdater(InventoryView view) {
+        this(view.getTopInventory());
+    }
+
+    // builders can be changed after they were set, the next update picks the changes up
+    public void setItem(int slot, ItemBuilder builder) {
+        builders[slot] = builder;
+    }
+
+    public void setItems(ItemBuilder[] builders) {
+        if (builders.length > this.builders.length)
+            throw new IllegalArgumentException("Cannot fit " + builders.length + " items into " + this.builders.length + " slots");
+        System.arraycopy(builders, 0, this.builders, 0, builders.length);
+        Arrays.fill(this.builders, builders.length, this.builders.length, null);
+    }
+
+    public ItemBuilder getItem(int slot) {
+        return builders[slot];
+    }
+
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    // rebuilds changed builders and only sets the slots whose item differs from the last update
+    public Result update() {
+        int rebuilt = 0;
+        int changed = 0;
+
+        for (int slot = 0; slot < builders.length; slot++) {
+            ItemBuilder builder = builders[slot];
+            if (!invalidated && builder == renderedBuilders[slot] && (builder == null || builder.getModCount() == renderedModCounts[slot]))
+                continue;
+
+            ItemStack item = builder != null ? builder.toItemStack() : null;
+            if (builder != null) rebuilt++;
+
+            renderedBuilders[slot] = builder;
+            renderedModCounts[slot] = builder != null ? builder.getModCount() : 0;
+            if (!invalidated && Objects.equals(item, renderedItems[slot])) continue;
+
+            renderedItems[slot] = item;
+            inventory.setItem(slot, item);
+            changed++;
+        }
+        invalidated = false;
+        return new Result(rebuilt, changed);
+    }
+
+    // the next update rebuilds and sets every slot, e.g. after the inventory was changed by something else
+    public void invalidate() {
+        invalidated = true;
+    }
+
+    public static final class Result {
+
+        private final int rebuilt;
+        private final int changed;
+
+        private Result(int rebuilt, int changed) {
+            this.rebuilt = rebuilt;
+            this.changed = changed;
+        }
+
+        public int getRebuilt() {
+            return rebuilt;
+        }
+
+        public int getChanged() {
+            return changed;
+        }
+    }
+}
@@ -5,44 +5,67 @@ import org.bukkit.block.banner.Pattern;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Axolotl;
 import org.bukkit.entity.TropicalFish;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemFactory;
 import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.*;
 import org.bukkit.map.MapView;
+import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.potion.PotionData;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
+import org.bukkit.profile.PlayerProfile;
 
 import java.util.*;
-
-public class ItemBuilder {
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+public class ItemBuilder implements Cloneable {
+
+    // fields of an imported stack that have been read from its meta
+    private static final int NAME = 1;
+    private static final int LORE = 1 << 1;
+    private static final int ENCHANTMENTS = 1 << 2;
+    private static final int ITEM_FLAGS = 1 << 3;
+
+    private static final ItemFlag[] ALL_ITEM_FLAGS = ItemFlag.values();
 
     private int amount = 1;
     private String name;
     private Material material;
-    private java.util.Map<Enchantment, Integer> enchantments = new HashMap<>();
+    private EnchantmentLevels enchantments = new EnchantmentLevels();
     private List<String> lore = new ArrayList<>();
-    private List<ItemFlag> itemFlags = new ArrayList<>();
+    private Set<ItemFlag> itemFlags = EnumSet.noneOf(ItemFlag.class);
+
+    // persistent data set on this builder, null values remove a key from an imported meta
+    private java.util.Map<DataKey<?, ?>, Object> data;
+
+    private ItemMeta source;
+    private int loaded;
+
+    private int modCount;
+    private int hash;
+    private boolean hashIsZero;
 
     public ItemBuilder() {
     }
 
     public ItemBuilder(ItemStack itemStack) {
-        ItemMeta meta;
-
-        if (itemStack.getItemMeta() != null) {
-            meta = itemStack.getItemMeta();
-            this.name = meta.getDisplayName();
-            this.material = itemStack.getType();
-            this.enchantments = itemStack.getEnchantments();
-            this.lore = meta.getLore();
-            this.itemFlags = Arrays.asList(meta.getItemFlags().toArray(ItemFlag[]::new));
-            this.amount = itemStack.getAmount();
-        }
+        this.material = itemStack.getType();
+        this.amount = itemStack.getAmount();
+        this.source = ItemMetrics.recordMetaCopy(itemStack.getItemMeta());
     }
 
     public ItemBuilder(String name) {
-        this.name = name;
+        setName(name);
     }
 
     public ItemBuilder(Material material) {
@@ -50,228 +73,441 @@ public class ItemBuilder {
     }
 
     public ItemBuilder(String name, Material material) {
-        this.name = name;
+        setName(name);
         this.material = material;
     }
 
     public ItemStack toItemStack() {
+        return toItemStack(null);
+    }
+
+    // without a prototype the meta is created by the item factory
+    private ItemStack toItemStack(ItemMeta prototype) {
+        if (!ItemMetrics.isEnabled()) return build(prototype);
+
+        long start = System.nanoTime();
+        ItemStack itemStack = build(prototype);
+        ItemMetrics.recordBuild(getClass(), System.nanoTime() - start);
+        return itemStack;
+    }
+
+    private ItemStack build(ItemMeta prototype) {
 
         ItemStack itemStack = new ItemStack(material, amount);
-        ItemMeta itemMeta = itemStack.getItemMeta();
 
-        assert itemMeta != null;
+        // imported stacks start from their own meta
+        ItemMeta itemMeta = source != null ? source.clone() : prototype != null ? prototype.clone() : itemStack.getItemMeta();
+        if (itemMeta == null) return itemStack;
+        ItemMetrics.recordMetaCopy(itemMeta);
 
-        // axolotl bucket
-        if (this instanceof AxolotlBucket) {
-            AxolotlBucket item = (AxolotlBucket) this;
-            AxolotlBucketMeta meta = (AxolotlBucketMeta) itemMeta;
-            meta.setVariant(item.getVariant());
-            itemStack.setItemMeta(meta);
-        }
+        applyMeta(itemMeta);
 
-        // banner
-        else if (this instanceof Banner) {
-            Banner item = (Banner) this;
-            BannerMeta meta = (BannerMeta) itemMeta;
-            meta.setPatterns(item.getPatterns());
-            itemStack.setItemMeta(meta);
-        }
+        // commit the meta once, the stack keeps a copy of it
+        itemStack.setItemMeta(itemMeta);
+        ItemMetrics.recordMetaCopies(1);
 
-        // book
-        else if (this instanceof Book) {
-            Book item = (Book) this;
-            BookMeta meta = (BookMeta) itemMeta;
-            meta.setPages(item.getPages());
-            meta.setTitle(item.getTitle());
-            meta.setAuthor(item.getAuthor());
-            meta.setGeneration(item.getGeneration());
-            itemStack.setItemMeta(meta);
-        }
+        return itemStack;
+    }
 
-        // bundle
-        else if (this instanceof Bundle) {
-            Bundle item = (Bundle) this;
-            BundleMeta meta = (BundleMeta) itemMeta;
-            meta.setItems(item.getItems());
-            itemStack.setItemMeta(meta);
-        }
+    public static ItemStack[] buildAll(List<? extends ItemBuilder> builders) {
+        ItemStack[] items = new ItemStack[builders.size()];
+        buildAll(builders, items);
+        return items;
+    }
 
-        // compass
-        else if (this instanceof Compass) {
-            Compass item = (Compass) this;
-            CompassMeta meta = (CompassMeta) itemMeta;
-            meta.setLodestone(item.getLodestone());
-            meta.setLodestoneTracked(item.isLodestoneTracked());
-            itemStack.setItemMeta(meta);
-        }
+    // only the first builders.size() slots are written, the rest of the inventory is left as it is
+    public static void buildAll(List<? extends ItemBuilder> builders, Inventory inventory) {
+        if (builders.size() > inventory.getSize())
+            throw new IllegalArgumentException("Cannot fit " + builders.size() + " items into " + inventory.getSize() + " slots");
 
-        // crossbow
-        else if (this instanceof Crossbow) {
-            Crossbow item = (Crossbow) this;
-            CrossbowMeta meta = (CrossbowMeta) itemMeta;
-            meta.setChargedProjectiles(item.getChargedProjectiles());
-            itemStack.setItemMeta(meta);
-        }
+        ItemStack[] items = buildAll(builders);
+        for (int slot = 0; slot < items.length; slot++) inventory.setItem(slot, items[slot]);
+    }
 
-        // damageable
-        else if (this instanceof Damageable) {
-            Damageable item = (Damageable) this;
-            org.bukkit.inventory.meta.Damageable meta = (org.bukkit.inventory.meta.Damageable) itemMeta;
-            meta.setDamage(item.getDamage());
-            itemStack.setItemMeta(meta);
-        }
+    public static void buildAll(List<? extends ItemBuilder> builders, ItemStack[] items) {
 
-        // stored enchantments
-        else if (this instanceof EnchantmentStorage) {
-            EnchantmentStorage item = (EnchantmentStorage) this;
-            EnchantmentStorageMeta meta = (EnchantmentStorageMeta) itemMeta;
-            item.getStoredEnchants().keySet().forEach(enchantment ->
-                    meta.addEnchant(enchantment, item.getStoredEnchantLevel(enchantment), false));
-            itemStack.setItemMeta(meta);
-        }
+        if (builders.size() > items.length)
+            throw new IllegalArgumentException("Cannot fit " + builders.size() + " items into " + items.length + " slots");
 
-        // firework effect
-        else if (this instanceof FireworkEffect) {
-            FireworkEffect item = (FireworkEffect) this;
-            FireworkEffectMeta meta = (FireworkEffectMeta) itemMeta;
-            meta.setEffect(item.getEffect());
-            itemStack.setItemMeta(meta);
-        }
+        // builders of the same material share one meta prototype
+        ItemFactory itemFactory = Bukkit.getItemFactory();
+        java.util.Map<Material, ItemMeta> prototypes = new EnumMap<>(Material.class);
 
-        // firework
-        else if (this instanceof Firework) {
-            Firework item = (Firework) this;
-            FireworkMeta meta = (FireworkMeta) itemMeta;
-            meta.setPower(item.getPower());
-            meta.addEffects(item.getEffects());
-            itemStack.setItemMeta(meta);
+        for (int i = 0; i < builders.size(); i++) {
+            ItemBuilder builder = builders.get(i);
+            if (builder == null) {
+                items[i] = null;
+                continue;
+            }
+            ItemMeta prototype = prototypes.computeIfAbsent(builder.material,
+                    material -> ItemMetrics.recordMetaCopy(itemFactory.getItemMeta(material)));
+            items[i] = builder.toItemStack(prototype);
         }
+    }
 
-        // knowledge book
-        else if (this instanceof KnowledgeBook) {
-            KnowledgeBook item = (KnowledgeBook) this;
-            KnowledgeBookMeta meta = (KnowledgeBookMeta) itemMeta;
-            meta.setRecipes(item.getRecipes());
-            itemStack.setItemMeta(meta);
-        }
+    // imports
+    public static ItemBuilder of(ItemStack itemStack) {
+        return of(itemStack, ItemMetrics.recordMetaCopy(itemStack.getItemMeta()));
+    }
 
-        // leather armor
-        else if (this instanceof LeatherArmor) {
-            LeatherArmor item = (LeatherArmor) this;
-            LeatherArmorMeta meta = (LeatherArmorMeta) itemMeta;
-            meta.setColor(item.getColor());
-            itemStack.setItemMeta(meta);
-        }
+    // the meta type is checked once and the meta is kept as the source of the builder
+    private static ItemBuilder of(ItemStack itemStack, ItemMeta meta) {
+        ItemBuilder builder;
+
+        if (meta instanceof AxolotlBucketMeta) builder = new AxolotlBucket();
+        else if (meta instanceof BannerMeta) builder = new Banner();
+        else if (meta instanceof BookMeta) builder = new Book();
+        else if (meta instanceof BundleMeta) builder = new Bundle();
+        else if (meta instanceof CompassMeta) builder = new Compass();
+        else if (meta instanceof CrossbowMeta) builder = new Crossbow();
+        else if (meta instanceof EnchantmentStorageMeta) builder = new EnchantmentStorage();
+        else if (meta instanceof FireworkEffectMeta) builder = new FireworkEffect();
+        else if (meta instanceof FireworkMeta) builder = new Firework();
+        else if (meta instanceof KnowledgeBookMeta) builder = new KnowledgeBook();
+        else if (meta instanceof LeatherArmorMeta) builder = new LeatherArmor();
+        else if (meta instanceof MapMeta) builder = new Map();
+        else if (meta instanceof PotionMeta) builder = new Potion();
+        else if (meta instanceof SkullMeta) builder = new Skull();
+        else if (meta instanceof SuspiciousStewMeta) builder = new SuspiciousStew();
+        else if (meta instanceof TropicalFishBucketMeta) builder = new TropicalFishBucket();
+        else if (meta instanceof org.bukkit.inventory.meta.Damageable && ((org.bukkit.inventory.meta.Damageable) meta).hasDamage())
+            builder = new Damageable();
+        else if (meta instanceof org.bukkit.inventory.meta.Repairable && ((org.bukkit.inventory.meta.Repairable) meta).hasRepairCost())
+            builder = new Repairable();
+        else builder = new ItemBuilder();
+
+        builder.material = itemStack.getType();
+        builder.amount = itemStack.getAmount();
+        builder.source = meta;
+        return builder;
+    }
 
-        // map
-        else if (this instanceof Map) {
-            Map item = (Map) this;
-            MapMeta meta = (MapMeta) itemMeta;
-            meta.setColor(item.getColor());
-            meta.setLocationName(item.getLocationName());
-            meta.setMapView(item.getMapView());
-            meta.setScaling(item.isScaling());
-            itemStack.setItemMeta(meta);
+    // empty slots stay null, equal stacks share one meta
+    public static ItemBuilder[] fromInventory(Inventory inventory) {
+        return fromContents(inventory.getContents(), false);
+    }
+
+    // a parallel decode blocks the calling thread until all slots are read, so the inventory cannot change meanwhile
+    public static ItemBuilder[] fromInventory(Inventory inventory, boolean parallel) {
+        return fromContents(inventory.getContents(), parallel);
+    }
+
+    public static ItemBuilder[] fromContents(ItemStack[] contents, boolean parallel) {
+        ItemBuilder[] builders = new ItemBuilder[contents.length];
+        ConcurrentMap<ItemMeta, ItemMeta> metas = new ConcurrentHashMap<>();
+
+        IntStream slots = IntStream.range(0, contents.length);
+        (parallel ? slots.parallel() : slots).forEach(slot -> {
+            ItemStack itemStack = contents[slot];
+            if (itemStack == null || itemStack.getType().isAir() || itemStack.getAmount() < 1) return;
+
+            ItemMeta meta = ItemMetrics.recordMetaCopy(itemStack.getItemMeta());
+            if (meta != null) meta = metas.computeIfAbsent(meta, Function.identity());
+            builders[slot] = of(itemStack, meta);
+        });
+        return builders;
+    }
+
+    public ItemTemplate freeze() {
+        return new ItemTemplate(toItemStack());
+    }
+
+    // equality
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        ItemBuilder other = (ItemBuilder) object;
+        if (hashCode() != other.hashCode()) return false;
+
+        // imported builders also carry everything of their meta that is not modelled here
+        return amount == other.amount
+                && material == other.material
+                && Objects.equals(name(), other.name())
+                && lore().equals(other.lore())
+                && enchantments().equals(other.enchantments())
+                && itemFlags().equals(other.itemFlags())
+                && dataEquals(data, other.data)
+                && Objects.equals(source, other.source);
+    }
+
+    // the hash is cached until the next change, racing threads compute the same value
+    @Override
+    public final int hashCode() {
+        int hash = this.hash;
+        if (hash == 0 && !hashIsZero) {
+            hash = computeHash();
+            if (hash == 0) hashIsZero = true;
+            else this.hash = hash;
         }
+        return hash;
+    }
 
-        // potion
-        else if (this instanceof Potion) {
-            Potion item = (Potion) this;
-            PotionMeta meta = (PotionMeta) itemMeta;
-            meta.setBasePotionData(item.getBasePotionData());
-            item.getCustomEffects().forEach(effect -> meta.addCustomEffect(effect, false));
-            meta.setColor(item.getColor());
-            itemStack.setItemMeta(meta);
+    protected int computeHash() {
+        int hash = 31 * amount + Objects.hashCode(material);
+        hash = 31 * hash + Objects.hashCode(name());
+        hash = 31 * hash + lore().hashCode();
+        hash = 31 * hash + enchantments().hashCode();
+        hash = 31 * hash + itemFlags().hashCode();
+        // the source meta is left to equals, hashing it costs as much as copying it
+        return 31 * hash + dataHash(data);
+    }
+
+    // every setter reports its change, so cached hashes and built items can be invalidated
+    protected void changed() {
+        modCount++;
+        hash = 0;
+        hashIsZero = false;
+    }
+
+    int getModCount() {
+        return modCount;
+    }
+
+    // array values are compared by content
+    private static boolean dataEquals(java.util.Map<DataKey<?, ?>, Object> data, java.util.Map<DataKey<?, ?>, Object> other) {
+        if (data == null || data.isEmpty()) return other == null || other.isEmpty();
+        if (other == null || data.size() != other.size()) return false;
+        for (java.util.Map.Entry<DataKey<?, ?>, Object> entry : data.entrySet()) {
+            if (!other.containsKey(entry.getKey()) || !Objects.deepEquals(entry.getValue(), other.get(entry.getKey()))) return false;
         }
+        return true;
+    }
 
-        // repairable
-        else if (this instanceof Repairable) {
-            Repairable item = (Repairable) this;
-            org.bukkit.inventory.meta.Repairable meta = (org.bukkit.inventory.meta.Repairable) itemMeta;
-            meta.setRepairCost(item.getRepairCost());
-            itemStack.setItemMeta(meta);
+    private static int dataHash(java.util.Map<DataKey<?, ?>, Object> data) {
+        if (data == null) return 0;
+        int hash = 0;
+        for (java.util.Map.Entry<DataKey<?, ?>, Object> entry : data.entrySet())
+            hash += entry.getKey().hashCode() ^ Arrays.deepHashCode(new Object[]{entry.getValue()});
+        return hash;
+    }
+
+    // copies read all imported fields, so neither the copy nor this builder is changed when the other is
+    public ItemBuilder copy() {
+
+        name();
+        lore();
+        enchantments();
+        itemFlags();
+
+        ItemBuilder copy;
+        try {
+            copy = (ItemBuilder) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
         }
 
-        // skull
-        else if (this instanceof Skull) {
-            Skull item = (Skull) this;
-            SkullMeta meta = (SkullMeta) itemMeta;
-            meta.setOwningPlayer(item.getOwningPlayer());
-            itemStack.setItemMeta(meta);
+        copy.enchantments = enchantments.copy();
+        copy.lore = new ArrayList<>(lore);
+        copy.itemFlags = EnumSet.copyOf(itemFlags);
+        if (data != null) copy.data = new LinkedHashMap<>(data);
+        return copy;
+    }
+
+    // async preparation, the builder is assembled on a worker and only the item stack is created on the main thread.
+    // Prepared builders are copied on the worker, so changes made to them after the hand-off do not reach the item
+    public static CompletableFuture<ItemStack> prepare(Supplier<? extends ItemBuilder> preparation, Executor mainThread) {
+        return prepare(preparation, ForkJoinPool.commonPool(), mainThread);
+    }
+
+    public static CompletableFuture<ItemStack> prepare(Supplier<? extends ItemBuilder> preparation, Executor worker, Executor mainThread) {
+        return CompletableFuture.supplyAsync(() -> preparation.get().copy(), worker)
+                .thenApplyAsync(ItemBuilder::toItemStack, mainThread);
+    }
+
+    public static CompletableFuture<ItemStack[]> prepareAll(Supplier<? extends List<? extends ItemBuilder>> preparation, Executor mainThread) {
+        return prepareAll(preparation, ForkJoinPool.commonPool(), mainThread);
+    }
+
+    public static CompletableFuture<ItemStack[]> prepareAll(Supplier<? extends List<? extends ItemBuilder>> preparation, Executor worker, Executor mainThread) {
+        return CompletableFuture.supplyAsync(() -> copyAll(preparation.get()), worker)
+                .thenApplyAsync(ItemBuilder::buildAll, mainThread);
+    }
+
+    public static CompletableFuture<Void> prepareAll(Supplier<? extends List<? extends ItemBuilder>> preparation, Inventory inventory, Executor mainThread) {
+        return prepareAll(preparation, inventory, ForkJoinPool.commonPool(), mainThread);
+    }
+
+    public static CompletableFuture<Void> prepareAll(Supplier<? extends List<? extends ItemBuilder>> preparation, Inventory inventory,
+                                                     Executor worker, Executor mainThread) {
+        return CompletableFuture.supplyAsync(() -> copyAll(preparation.get()), worker)
+                .thenAcceptAsync(builders -> buildAll(builders, inventory), mainThread);
+    }
+
+    // empty slots stay null
+    private static List<ItemBuilder> copyAll(List<? extends ItemBuilder> builders) {
+        List<ItemBuilder> copies = new ArrayList<>(builders.size());
+        for (ItemBuilder builder : builders) copies.add(builder != null ? builder.copy() : null);
+        return copies;
+    }
+
+    // only fields that were read or written can differ from an imported meta, builders without one write everything
+    protected void applyMeta(ItemMeta meta) {
+
+        if (isLoaded(NAME)) meta.setDisplayName(name);
+        if (isLoaded(LORE)) meta.setLore(lore);
+
+        if (isLoaded(ITEM_FLAGS)) {
+            for (ItemFlag itemFlag : ALL_ITEM_FLAGS) {
+                if (itemFlags.contains(itemFlag)) meta.addItemFlags(itemFlag);
+                else meta.removeItemFlags(itemFlag);
+            }
         }
 
-        // suspicious stew
-        else if (this instanceof SuspiciousStew) {
-            SuspiciousStew item = (SuspiciousStew) this;
-            SuspiciousStewMeta meta = (SuspiciousStewMeta) itemMeta;
-            item.getCustomEffects().forEach(effect -> meta.addCustomEffect(effect, false));
-            itemStack.setItemMeta(meta);
+        if (isLoaded(ENCHANTMENTS)) {
+            if (meta.hasEnchants()) meta.getEnchants().keySet().forEach(meta::removeEnchant);
+            enchantments.forEach((enchantment, level) -> meta.addEnchant(enchantment, level, true));
         }
 
-        // tropical fish bucket
-        else if (this instanceof TropicalFishBucket) {
-            TropicalFishBucket item = (TropicalFishBucket) this;
-            TropicalFishBucketMeta meta = (TropicalFishBucketMeta) itemMeta;
-            meta.setPattern(item.getPattern());
-            meta.setPatternColor(item.getPatternColor());
-            meta.setBodyColor(item.getBodyColor());
-            itemStack.setItemMeta(meta);
+        if (data != null && !data.isEmpty()) {
+            PersistentDataContainer container = meta.getPersistentDataContainer();
+            data.forEach((key, value) -> key.apply(container, value));
         }
+    }
 
-        ItemMeta meta = itemStack.getItemMeta();
-        meta.setDisplayName(name);
-        meta.setLore(new ArrayList<>(lore));
-        meta.addItemFlags(itemFlags.toArray(ItemFlag[]::new));
-        itemStack.setItemMeta(meta);
+    // lazy import
+    protected ItemMeta getSourceMeta() {
+        return source;
+    }
 
-        itemStack.addUnsafeEnchantments(enchantments);
+    protected void checkSourceMeta(Class<? extends ItemMeta> type) {
+        if (!type.isInstance(source))
+            throw new IllegalArgumentException("Item of type " + material + " has no " + type.getSimpleName());
+    }
 
-        return itemStack;
+    private boolean isLoaded(int field) {
+        return source == null || (loaded & field) != 0;
+    }
+
+    private boolean load(int field) {
+        if (isLoaded(field)) return false;
+        loaded |= field;
+        return source != null;
+    }
+
+    private String name() {
+        if (load(NAME)) this.name = source.getDisplayName();
+        return name;
+    }
+
+    private List<String> lore() {
+        if (load(LORE) && source.hasLore()) this.lore = new ArrayList<>(source.getLore());
+        return lore;
+    }
+
+    private EnchantmentLevels enchantments() {
+        if (load(ENCHANTMENTS)) this.enchantments = new EnchantmentLevels(source.getEnchants());
+        return enchantments;
+    }
+
+    private Set<ItemFlag> itemFlags() {
+        if (load(ITEM_FLAGS) && !source.getItemFlags().isEmpty()) this.itemFlags = EnumSet.copyOf(source.getItemFlags());
+        return itemFlags;
     }
 
     // setters
     public void setAmount(int amount) {
+        changed();
         this.amount = amount;
     }
 
     public void addEnchantment(Enchantment enchantment, Integer level) {
-        this.enchantments.put(enchantment, level);
+        changed();
+        enchantments().put(enchantment, level);
     }
 
     public void setEnchantments(java.util.Map<Enchantment, Integer> enchantments) {
-        this.enchantments = enchantments;
+        changed();
+        this.loaded |= ENCHANTMENTS;
+        this.enchantments = new EnchantmentLevels(enchantments);
     }
 
     public void setName(String name) {
+        changed();
+        this.loaded |= NAME;
         this.name = name;
     }
 
+    public void setName(TextTemplate name, Function<String, ?> resolver) {
+        setName(name.render(resolver));
+    }
+
+    // & and &#RRGGBB color codes are translated through a shared cache
+    public void setColoredName(String name) {
+        setName(ColorCodes.translate(name));
+    }
+
     public void setMaterial(Material material) {
+        changed();
         this.material = material;
     }
 
     public void addLoreLines(String... lines) {
-        Collections.addAll(lore, lines);
+        changed();
+        Collections.addAll(lore(), lines);
+    }
+
+    public void addColoredLoreLines(String... lines) {
+        changed();
+        for (String line : lines) lore().add(ColorCodes.translate(line));
     }
 
     public void setLore(List<String> lore) {
-        this.lore = lore;
+        changed();
+        this.loaded |= LORE;
+        this.lore = new ArrayList<>(lore);
+    }
+
+    public void setLore(List<TextTemplate> lore, Function<String, ?> resolver) {
+        setLore(TextTemplate.render(lore, resolver));
+    }
+
+    public void setColoredLore(List<String> lore) {
+        setLore(ColorCodes.translate(lore));
     }
 
     public void setLoreLine(int index, String line) {
-        this.lore.set(index, line);
+        changed();
+        lore().set(index, line);
     }
 
     public void clearLore() {
-        this.lore.clear();
+        changed();
+        lore().clear();
     }
 
     public void addItemFlag(ItemFlag itemFlag) {
-        if (!this.itemFlags.contains(itemFlag)) this.itemFlags.add(itemFlag);
+        changed();
+        itemFlags().add(itemFlag);
     }
 
     public void setItemFlags(ItemFlag[] itemFlags) {
-        this.itemFlags = Arrays.asList(itemFlags);
+        changed();
+        this.loaded |= ITEM_FLAGS;
+        this.itemFlags = EnumSet.noneOf(ItemFlag.class);
+        Collections.addAll(this.itemFlags, itemFlags);
+    }
+
+    public <Z> void setData(DataKey<?, Z> key, Z value) {
+        changed();
+        putData(key, value);
+    }
+
+    public void setData(java.util.Map<? extends DataKey<?, ?>, ?> values) {
+        changed();
+        values.forEach(this::putData);
+    }
+
+    public void removeData(DataKey<?, ?> key) {
+        changed();
+        putData(key, null);
+    }
+
+    private void putData(DataKey<?, ?> key, Object value) {
+        if (data == null) data = new LinkedHashMap<>();
+        if (value != null) data.put(key, key.cast(value));
+        else if (source != null) data.put(key, null);
+        else data.remove(key);
     }
 
     // getters
@@ -279,29 +515,56 @@ public class ItemBuilder {
         return amount;
     }
 
+    // flags are not stored as a list, so their getter returns an unmodifiable snapshot
     public List<ItemFlag> getItemFlags() {
-        return itemFlags;
+        return List.copyOf(itemFlags());
     }
 
+    // lists are returned as writable views that count every change like the setters do
     public List<String> getLore() {
-        return lore;
+        return new ChangeTrackingList<>(lore(), this::changed);
     }
 
     public java.util.Map<Enchantment, Integer> getEnchantments() {
-        return enchantments;
+        return enchantments().asMap(this::changed);
     }
 
     public String getName() {
-        return name;
+        return name();
     }
 
     public Material getMaterial() {
         return material;
     }
 
+    public <Z> Z getData(DataKey<?, Z> key) {
+        if (data != null && data.containsKey(key)) return key.cast(data.get(key));
+        return key.get(source);
+    }
+
+    public boolean hasData(DataKey<?, ?> key) {
+        return getData(key) != null;
+    }
+
+    // only the keys asked for are read, missing ones are left out
+    public java.util.Map<DataKey<?, ?>, Object> getData(DataKey<?, ?>... keys) {
+        java.util.Map<DataKey<?, ?>, Object> values = new LinkedHashMap<>();
+        for (DataKey<?, ?> key : keys) {
+            Object value = getData(key);
+            if (value != null) values.put(key, value);
+        }
+        return values;
+    }
+
+    // the data set on this builder, without what an imported meta already carries
+    java.util.Map<DataKey<?, ?>, Object> getDataChanges() {
+        return data != null ? Collections.unmodifiableMap(data) : Collections.emptyMap();
+    }
+
     public static class AxolotlBucket extends ItemBuilder {
 
         private Axolotl.Variant variant;
+        private boolean loaded;
 
         public AxolotlBucket() {
         }
@@ -320,16 +583,55 @@ public class ItemBuilder {
         }
 
         public AxolotlBucket(ItemStack itemStack) {
-            AxolotlBucketMeta meta = (AxolotlBucketMeta) itemStack.getItemMeta();
-            assert meta != null;
-            this.variant = meta.getVariant();
+            super(itemStack);
+            checkSourceMeta(AxolotlBucketMeta.class);
+        }
+
+        @Override
+        public AxolotlBucket copy() {
+            load();
+            return (AxolotlBucket) super.copy();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            AxolotlBucket other = (AxolotlBucket) object;
+            load();
+            other.load();
+            return Objects.equals(variant, other.variant);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(variant);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            AxolotlBucketMeta meta = (AxolotlBucketMeta) getSourceMeta();
+            if (meta == null) return;
+            if (meta.hasVariant()) this.variant = meta.getVariant();
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            AxolotlBucketMeta meta = (AxolotlBucketMeta) itemMeta;
+            if (variant != null) meta.setVariant(variant);
         }
 
         public void setVariant(Axolotl.Variant variant) {
+            load();
+            changed();
             this.variant = variant;
         }
 
         public Axolotl.Variant getVariant() {
+            load();
             return variant;
         }
     }
@@ -337,6 +639,7 @@ public class ItemBuilder {
     public static class Banner extends ItemBuilder {
 
         private List<Pattern> patterns = new ArrayList<>();
+        private boolean loaded;
 
         public Banner() {
         }
@@ -355,36 +658,85 @@ public class ItemBuilder {
         }
 
         public Banner(ItemStack itemStack) {
-            BannerMeta meta = (BannerMeta) itemStack.getItemMeta();
-            assert meta != null;
-            this.patterns = meta.getPatterns();
+            super(itemStack);
+            checkSourceMeta(BannerMeta.class);
+        }
+
+        @Override
+        public Banner copy() {
+            load();
+            Banner copy = (Banner) super.copy();
+            copy.patterns = new ArrayList<>(patterns);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Banner other = (Banner) object;
+            load();
+            other.load();
+            return Objects.equals(patterns, other.patterns);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(patterns);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            BannerMeta meta = (BannerMeta) getSourceMeta();
+            if (meta == null) return;
+            this.patterns = new ArrayList<>(meta.getPatterns());
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            BannerMeta meta = (BannerMeta) itemMeta;
+            meta.setPatterns(patterns);
         }
 
         public void setPattern(int index, Pattern pattern) {
+            load();
+            changed();
             this.patterns.set(index, pattern);
         }
 
         public int numberOfPatterns() {
+            load();
             return patterns.size();
         }
 
         public void setPatterns(List<Pattern> patterns) {
-            this.patterns = patterns;
+            load();
+            changed();
+            this.patterns = new ArrayList<>(patterns);
         }
 
         public void addPattern(Pattern pattern) {
+            load();
+            changed();
             this.patterns.add(pattern);
         }
 
         public List<Pattern> getPatterns() {
-            return patterns;
+            load();
+            return new ChangeTrackingList<>(patterns, this::changed);
         }
 
         public Pattern getPattern(int index) {
+            load();
             return this.patterns.get(index);
         }
 
         public void removePattern(int index) {
+            load();
+            changed();
             this.patterns.remove(index);
         }
     }
@@ -395,6 +747,7 @@ public class ItemBuilder {
         private String author;
         private BookMeta.Generation generation;
         private List<String> pages = new ArrayList<>();
+        private boolean loaded;
 
         public Book() {
         }
@@ -413,79 +766,144 @@ public class ItemBuilder {
         }
 
         public Book(ItemStack itemStack) {
-            BookMeta meta = (BookMeta) itemStack.getItemMeta();
-            assert meta != null;
+            super(itemStack);
+            checkSourceMeta(BookMeta.class);
+        }
+
+        @Override
+        public Book copy() {
+            load();
+            Book copy = (Book) super.copy();
+            copy.pages = new ArrayList<>(pages);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Book other = (Book) object;
+            load();
+            other.load();
+            return Objects.equals(title, other.title) && Objects.equals(author, other.author) && Objects.equals(generation, other.generation) && Objects.equals(pages, other.pages);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hash(title, author, generation, pages);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            BookMeta meta = (BookMeta) getSourceMeta();
+            if (meta == null) return;
             this.title = meta.getTitle();
             this.author = meta.getAuthor();
             this.generation = meta.getGeneration();
-            this.pages = meta.getPages();
+            this.pages = new ArrayList<>(meta.getPages());
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            BookMeta meta = (BookMeta) itemMeta;
+            meta.setPages(pages);
+            meta.setTitle(title);
+            meta.setAuthor(author);
+            meta.setGeneration(generation);
         }
 
         public boolean hasTitle() {
-            return false;
+            load();
+            return title != null;
         }
 
         public String getTitle() {
+            load();
             return title;
         }
 
         public void setTitle(String title) {
+            load();
+            changed();
             this.title = title;
         }
 
         public boolean hasAuthor() {
+            load();
             return author != null;
         }
 
         public String getAuthor() {
+            load();
             return author;
         }
 
         public void setAuthor(String author) {
+            load();
+            changed();
             this.author = author;
         }
 
         public boolean hasGeneration() {
+            load();
             return generation != null;
         }
 
         public BookMeta.Generation getGeneration() {
+            load();
             return generation;
         }
 
         public void setGeneration(BookMeta.Generation generation) {
+            load();
+            changed();
             this.generation = generation;
         }
 
         public boolean hasPages() {
+            load();
             return !this.pages.isEmpty();
         }
 
         public String getPage(int index) {
+            load();
             return this.pages.get(index);
         }
 
         public void setPage(int index, String data) {
+            load();
+            changed();
             this.pages.set(index, data);
         }
 
         public List<String> getPages() {
-            return this.pages;
+            load();
+            return new ChangeTrackingList<>(pages, this::changed);
         }
 
         public void setPages(List<String> pages) {
-            this.pages = pages;
+            load();
+            changed();
+            this.pages = new ArrayList<>(pages);
         }
 
         public void setPages(String... pages) {
+            load();
+            changed();
             Collections.addAll(this.pages, pages);
         }
 
         public void addPage(String... pages) {
+            load();
+            changed();
             Collections.addAll(this.pages, pages);
         }
 
         public int getPageCount() {
+            load();
             return this.pages.size();
         }
     }
@@ -493,6 +911,7 @@ public class ItemBuilder {
     public static class Bundle extends ItemBuilder {
 
         private List<ItemStack> items = new ArrayList<>();
+        private boolean loaded;
 
         public Bundle() {
         }
@@ -511,24 +930,68 @@ public class ItemBuilder {
         }
 
         public Bundle(ItemStack itemStack) {
-            BundleMeta meta = (BundleMeta) itemStack.getItemMeta();
-            assert meta != null;
-            this.items = meta.getItems();
+            super(itemStack);
+            checkSourceMeta(BundleMeta.class);
+        }
+
+        @Override
+        public Bundle copy() {
+            load();
+            Bundle copy = (Bundle) super.copy();
+            copy.items = new ArrayList<>(items);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Bundle other = (Bundle) object;
+            load();
+            other.load();
+            return Objects.equals(items, other.items);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(items);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            BundleMeta meta = (BundleMeta) getSourceMeta();
+            if (meta == null) return;
+            this.items = new ArrayList<>(meta.getItems());
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            BundleMeta meta = (BundleMeta) itemMeta;
+            meta.setItems(items);
         }
 
         public boolean hasItems() {
+            load();
             return !items.isEmpty();
         }
 
         public List<ItemStack> getItems() {
-            return items;
+            load();
+            return new ChangeTrackingList<>(items, this::changed);
         }
 
         public void setItems(List<ItemStack> items) {
-            this.items = items;
+            load();
+            changed();
+            this.items = new ArrayList<>(items);
         }
 
         public void addItem(ItemStack item) {
+            load();
+            changed();
             this.items.add(item);
         }
     }
@@ -537,6 +1000,7 @@ public class ItemBuilder {
 
         private Location lodestone;
         private boolean tracked;
+        private boolean loaded;
 
         public Compass() {
         }
@@ -555,29 +1019,75 @@ public class ItemBuilder {
         }
 
         public Compass(ItemStack itemStack) {
-            CompassMeta meta = (CompassMeta) itemStack.getItemMeta();
-            assert meta != null;
+            super(itemStack);
+            checkSourceMeta(CompassMeta.class);
+        }
+
+        @Override
+        public Compass copy() {
+            load();
+            Compass copy = (Compass) super.copy();
+            if (lodestone != null) copy.lodestone = lodestone.clone();
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Compass other = (Compass) object;
+            load();
+            other.load();
+            return Objects.equals(lodestone, other.lodestone) && tracked == other.tracked;
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hash(lodestone, tracked);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            CompassMeta meta = (CompassMeta) getSourceMeta();
+            if (meta == null) return;
             this.lodestone = meta.getLodestone();
             this.tracked = meta.isLodestoneTracked();
         }
 
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            CompassMeta meta = (CompassMeta) itemMeta;
+            meta.setLodestone(lodestone);
+            meta.setLodestoneTracked(tracked);
+        }
+
         public boolean hasLodestone() {
+            load();
             return lodestone != null;
         }
 
         public Location getLodestone() {
+            load();
             return lodestone;
         }
 
         public void setLodestone(Location lodestone) {
+            load();
+            changed();
             this.lodestone = lodestone;
         }
 
         public boolean isLodestoneTracked() {
+            load();
             return tracked;
         }
 
         public void setLodestoneTracked(boolean tracked) {
+            load();
+            changed();
             this.tracked = tracked;
         }
     }
@@ -585,6 +1095,7 @@ public class ItemBuilder {
     public static class Crossbow extends ItemBuilder {
 
         List<ItemStack> projectiles = new ArrayList<>();
+        private boolean loaded;
 
         public Crossbow() {
         }
@@ -603,24 +1114,68 @@ public class ItemBuilder {
         }
 
         public Crossbow(ItemStack itemStack) {
-            CrossbowMeta meta = (CrossbowMeta) itemStack.getItemMeta();
-            assert meta != null;
-            this.projectiles = meta.getChargedProjectiles();
+            super(itemStack);
+            checkSourceMeta(CrossbowMeta.class);
+        }
+
+        @Override
+        public Crossbow copy() {
+            load();
+            Crossbow copy = (Crossbow) super.copy();
+            copy.projectiles = new ArrayList<>(projectiles);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Crossbow other = (Crossbow) object;
+            load();
+            other.load();
+            return Objects.equals(projectiles, other.projectiles);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(projectiles);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            CrossbowMeta meta = (CrossbowMeta) getSourceMeta();
+            if (meta == null) return;
+            this.projectiles = new ArrayList<>(meta.getChargedProjectiles());
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            CrossbowMeta meta = (CrossbowMeta) itemMeta;
+            meta.setChargedProjectiles(projectiles);
         }
 
         public boolean hasChargedProjectiles() {
+            load();
             return !projectiles.isEmpty();
         }
 
         public List<ItemStack> getChargedProjectiles() {
-            return projectiles;
+            load();
+            return new ChangeTrackingList<>(projectiles, this::changed);
         }
 
         public void setChargedProjectiles(List<ItemStack> projectiles) {
-            this.projectiles = projectiles;
+            load();
+            changed();
+            this.projectiles = new ArrayList<>(projectiles);
         }
 
         public void addChargedProjectile(ItemStack item) {
+            load();
+            changed();
             this.projectiles.add(item);
         }
     }
@@ -628,6 +1183,7 @@ public class ItemBuilder {
     public static class Damageable extends ItemBuilder {
 
         private Integer damage;
+        private boolean loaded;
 
         public Damageable() {
         }
@@ -646,27 +1202,68 @@ public class ItemBuilder {
         }
 
         public Damageable(ItemStack itemStack) {
-            org.bukkit.inventory.meta.Damageable meta = (org.bukkit.inventory.meta.Damageable) itemStack.getItemMeta();
-            assert meta != null;
-            this.damage = meta.getDamage();
+            super(itemStack);
+            checkSourceMeta(org.bukkit.inventory.meta.Damageable.class);
+        }
+
+        @Override
+        public Damageable copy() {
+            load();
+            return (Damageable) super.copy();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Damageable other = (Damageable) object;
+            load();
+            other.load();
+            return Objects.equals(damage, other.damage);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(damage);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            org.bukkit.inventory.meta.Damageable meta = (org.bukkit.inventory.meta.Damageable) getSourceMeta();
+            if (meta == null) return;
+            if (meta.hasDamage()) this.damage = meta.getDamage();
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            org.bukkit.inventory.meta.Damageable meta = (org.bukkit.inventory.meta.Damageable) itemMeta;
+            meta.setDamage(damage != null ? damage : 0);
         }
 
         public boolean hasDamage() {
+            load();
             return damage != null;
         }
 
         public int getDamage() {
+            load();
             return damage;
         }
 
         public void setDamage(int damage) {
+            load();
+            changed();
             this.damage = damage;
         }
     }
 
     public static class EnchantmentStorage extends ItemBuilder {
 
-        private java.util.Map<Enchantment, Integer> storedEnchantments = new HashMap<>();
+        private EnchantmentLevels storedEnchantments = new EnchantmentLevels();
+        private boolean loaded;
 
         public EnchantmentStorage() {
         }
@@ -685,32 +1282,79 @@ public class ItemBuilder {
         }
 
         public EnchantmentStorage(ItemStack itemStack) {
-            EnchantmentStorageMeta meta = (EnchantmentStorageMeta) itemStack.getItemMeta();
-            assert meta != null;
-            this.storedEnchantments = meta.getStoredEnchants();
+            super(itemStack);
+            checkSourceMeta(EnchantmentStorageMeta.class);
+        }
+
+        @Override
+        public EnchantmentStorage copy() {
+            load();
+            EnchantmentStorage copy = (EnchantmentStorage) super.copy();
+            copy.storedEnchantments = storedEnchantments.copy();
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            EnchantmentStorage other = (EnchantmentStorage) object;
+            load();
+            other.load();
+            return Objects.equals(storedEnchantments, other.storedEnchantments);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(storedEnchantments);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            EnchantmentStorageMeta meta = (EnchantmentStorageMeta) getSourceMeta();
+            if (meta == null) return;
+            this.storedEnchantments = new EnchantmentLevels(meta.getStoredEnchants());
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            EnchantmentStorageMeta meta = (EnchantmentStorageMeta) itemMeta;
+            meta.getStoredEnchants().keySet().forEach(meta::removeStoredEnchant);
+            storedEnchantments.forEach((enchantment, level) -> meta.addStoredEnchant(enchantment, level, true));
         }
 
         public boolean hasStoredEnchants() {
+            load();
             return !this.storedEnchantments.isEmpty();
         }
 
         public boolean hasStoredEnchant(Enchantment enchantment) {
-            return this.storedEnchantments.containsKey(enchantment);
+            load();
+            return this.storedEnchantments.contains(enchantment);
         }
 
         public int getStoredEnchantLevel(Enchantment enchantment) {
+            load();
             return this.storedEnchantments.get(enchantment);
         }
 
         public java.util.Map<Enchantment, Integer> getStoredEnchants() {
-            return this.storedEnchantments;
+            load();
+            return this.storedEnchantments.asMap(this::changed);
         }
 
         public void addStoredEnchant(Enchantment enchantment, int level, boolean ignoreLevelRestriction) {
+            load();
+            changed();
             this.storedEnchantments.put(enchantment, level);
         }
 
         public void removeStoredEnchant(Enchantment enchantment) throws IllegalArgumentException {
+            load();
+            changed();
             this.storedEnchantments.remove(enchantment);
         }
 
@@ -722,6 +1366,7 @@ public class ItemBuilder {
     public static class FireworkEffect extends ItemBuilder {
 
         private org.bukkit.FireworkEffect effect;
+        private boolean loaded;
 
         public FireworkEffect() {
         }
@@ -740,20 +1385,60 @@ public class ItemBuilder {
         }
 
         public FireworkEffect(ItemStack itemStack) {
-            FireworkEffectMeta meta = (FireworkEffectMeta) itemStack.getItemMeta();
-            assert meta != null;
+            super(itemStack);
+            checkSourceMeta(FireworkEffectMeta.class);
+        }
+
+        @Override
+        public FireworkEffect copy() {
+            load();
+            return (FireworkEffect) super.copy();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            FireworkEffect other = (FireworkEffect) object;
+            load();
+            other.load();
+            return Objects.equals(effect, other.effect);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(effect);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            FireworkEffectMeta meta = (FireworkEffectMeta) getSourceMeta();
+            if (meta == null) return;
             this.effect = meta.getEffect();
         }
 
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            FireworkEffectMeta meta = (FireworkEffectMeta) itemMeta;
+            meta.setEffect(effect);
+        }
+
         public void setEffect(org.bukkit.FireworkEffect effect) {
+            load();
+            changed();
             this.effect = effect;
         }
 
         public boolean hasEffect() {
+            load();
             return effect != null;
         }
 
         public org.bukkit.FireworkEffect getEffect() {
+            load();
             return effect;
         }
     }
@@ -762,6 +1447,7 @@ public class ItemBuilder {
 
         private List<org.bukkit.FireworkEffect> effects = new ArrayList<>();
         private int power;
+        private boolean loaded;
 
         public Firework() {
         }
@@ -780,49 +1466,105 @@ public class ItemBuilder {
         }
 
         public Firework(ItemStack itemStack) {
-            FireworkMeta meta = (FireworkMeta) itemStack.getItemMeta();
-            assert meta != null;
-            this.effects = meta.getEffects();
+            super(itemStack);
+            checkSourceMeta(FireworkMeta.class);
+        }
+
+        @Override
+        public Firework copy() {
+            load();
+            Firework copy = (Firework) super.copy();
+            copy.effects = new ArrayList<>(effects);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Firework other = (Firework) object;
+            load();
+            other.load();
+            return Objects.equals(effects, other.effects) && power == other.power;
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hash(effects, power);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            FireworkMeta meta = (FireworkMeta) getSourceMeta();
+            if (meta == null) return;
+            this.effects = new ArrayList<>(meta.getEffects());
             this.power = meta.getPower();
         }
 
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            FireworkMeta meta = (FireworkMeta) itemMeta;
+            meta.setPower(power);
+            meta.clearEffects();
+            meta.addEffects(effects);
+        }
+
         public void addEffect(org.bukkit.FireworkEffect effect) throws IllegalArgumentException {
+            load();
+            changed();
             this.effects.add(effect);
         }
 
         public void addEffects(org.bukkit.FireworkEffect... effects) throws IllegalArgumentException {
+            load();
+            changed();
             Collections.addAll(this.effects, effects);
         }
 
         public void addEffects(Iterable<org.bukkit.FireworkEffect> effects) throws IllegalArgumentException {
+            load();
+            changed();
             effects.forEach(this.effects::add);
         }
 
         public List<org.bukkit.FireworkEffect> getEffects() {
-            return effects;
+            load();
+            return new ChangeTrackingList<>(effects, this::changed);
         }
 
         public int getEffectsSize() {
+            load();
             return effects.size();
         }
 
         public void removeEffect(int index) throws IndexOutOfBoundsException {
+            load();
+            changed();
             this.effects.remove(index);
         }
 
         public void clearEffects() {
+            load();
+            changed();
             this.effects.clear();
         }
 
         public boolean hasEffects() {
+            load();
             return !this.effects.isEmpty();
         }
 
         public int getPower() {
+            load();
             return power;
         }
 
         public void setPower(int power) throws IllegalArgumentException {
+            load();
+            changed();
             this.power = power;
         }
     }
@@ -830,6 +1572,7 @@ public class ItemBuilder {
     public static class KnowledgeBook extends ItemBuilder {
 
         private List<NamespacedKey> recipes = new ArrayList<>();
+        private boolean loaded;
 
         public KnowledgeBook() {
         }
@@ -848,24 +1591,68 @@ public class ItemBuilder {
         }
 
         public KnowledgeBook(ItemStack itemStack) {
-            KnowledgeBookMeta meta = (KnowledgeBookMeta) itemStack.getItemMeta();
-            assert meta != null;
-            this.recipes = meta.getRecipes();
+            super(itemStack);
+            checkSourceMeta(KnowledgeBookMeta.class);
+        }
+
+        @Override
+        public KnowledgeBook copy() {
+            load();
+            KnowledgeBook copy = (KnowledgeBook) super.copy();
+            copy.recipes = new ArrayList<>(recipes);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            KnowledgeBook other = (KnowledgeBook) object;
+            load();
+            other.load();
+            return Objects.equals(recipes, other.recipes);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(recipes);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            KnowledgeBookMeta meta = (KnowledgeBookMeta) getSourceMeta();
+            if (meta == null) return;
+            this.recipes = new ArrayList<>(meta.getRecipes());
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            KnowledgeBookMeta meta = (KnowledgeBookMeta) itemMeta;
+            meta.setRecipes(recipes);
         }
 
         public boolean hasRecipes() {
+            load();
             return !recipes.isEmpty();
         }
 
         public List<NamespacedKey> getRecipes() {
-            return recipes;
+            load();
+            return new ChangeTrackingList<>(recipes, this::changed);
         }
 
         public void setRecipes(List<NamespacedKey> recipes) {
-            this.recipes = recipes;
+            load();
+            changed();
+            this.recipes = new ArrayList<>(recipes);
         }
 
         public void addRecipe(NamespacedKey... recipes) {
+            load();
+            changed();
             Collections.addAll(this.recipes, recipes);
         }
     }
@@ -873,6 +1660,7 @@ public class ItemBuilder {
     public static class LeatherArmor extends ItemBuilder {
 
         private Color color;
+        private boolean loaded;
 
         public LeatherArmor() {
         }
@@ -891,16 +1679,55 @@ public class ItemBuilder {
         }
 
         public LeatherArmor(ItemStack itemStack) {
-            LeatherArmorMeta meta = (LeatherArmorMeta) itemStack.getItemMeta();
-            assert meta != null;
+            super(itemStack);
+            checkSourceMeta(LeatherArmorMeta.class);
+        }
+
+        @Override
+        public LeatherArmor copy() {
+            load();
+            return (LeatherArmor) super.copy();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            LeatherArmor other = (LeatherArmor) object;
+            load();
+            other.load();
+            return Objects.equals(color, other.color);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(color);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            LeatherArmorMeta meta = (LeatherArmorMeta) getSourceMeta();
+            if (meta == null) return;
             this.color = meta.getColor();
         }
 
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            LeatherArmorMeta meta = (LeatherArmorMeta) itemMeta;
+            meta.setColor(color);
+        }
+
         public Color getColor() {
+            load();
             return color;
         }
 
         public void setColor(Color color) {
+            load();
+            changed();
             this.color = color;
         }
     }
@@ -911,6 +1738,7 @@ public class ItemBuilder {
         private String locationName;
         private MapView mapView;
         private boolean scaling;
+        private boolean loaded;
 
         public Map() {
         }
@@ -929,55 +1757,109 @@ public class ItemBuilder {
         }
 
         public Map(ItemStack itemStack) {
-            MapMeta meta = (MapMeta) itemStack.getItemMeta();
-            assert meta != null;
+            super(itemStack);
+            checkSourceMeta(MapMeta.class);
+        }
+
+        @Override
+        public Map copy() {
+            load();
+            return (Map) super.copy();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Map other = (Map) object;
+            load();
+            other.load();
+            return Objects.equals(color, other.color) && Objects.equals(locationName, other.locationName) && Objects.equals(mapView, other.mapView) && scaling == other.scaling;
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hash(color, locationName, mapView, scaling);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            MapMeta meta = (MapMeta) getSourceMeta();
+            if (meta == null) return;
             this.color = meta.getColor();
             this.locationName = meta.getLocationName();
             this.mapView = meta.getMapView();
             this.scaling = meta.isScaling();
         }
 
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            MapMeta meta = (MapMeta) itemMeta;
+            meta.setColor(color);
+            meta.setLocationName(locationName);
+            meta.setMapView(mapView);
+            meta.setScaling(scaling);
+        }
+
         public boolean hasMapView() {
+            load();
             return mapView != null;
         }
 
         public MapView getMapView() {
+            load();
             return mapView;
         }
 
         public void setMapView(MapView map) {
+            load();
+            changed();
             this.mapView = map;
         }
 
         public boolean isScaling() {
+            load();
             return scaling;
         }
 
         public void setScaling(boolean value) {
+            load();
+            changed();
             this.scaling = value;
         }
 
         public boolean hasLocationName() {
-            return !this.locationName.isEmpty();
+            load();
+            return locationName != null && !this.locationName.isEmpty();
         }
 
         public String getLocationName() {
+            load();
             return locationName;
         }
 
         public void setLocationName(String name) {
+            load();
+            changed();
             this.locationName = name;
         }
 
         public boolean hasColor() {
+            load();
             return color != null;
         }
 
         public Color getColor() {
+            load();
             return color;
         }
 
         public void setColor(Color color) {
+            load();
+            changed();
             this.color = color;
         }
     }
@@ -987,6 +1869,7 @@ public class ItemBuilder {
         private PotionData potionData;
         private List<PotionEffect> effects = new ArrayList<>();
         private Color color;
+        private boolean loaded;
 
         public Potion() {
         }
@@ -1005,55 +1888,112 @@ public class ItemBuilder {
         }
 
         public Potion(ItemStack itemStack) {
-            PotionMeta potionMeta = (PotionMeta) itemStack.getItemMeta();
-            assert potionMeta != null;
+            super(itemStack);
+            checkSourceMeta(PotionMeta.class);
+        }
+
+        @Override
+        public Potion copy() {
+            load();
+            Potion copy = (Potion) super.copy();
+            copy.effects = new ArrayList<>(effects);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Potion other = (Potion) object;
+            load();
+            other.load();
+            return Objects.equals(potionData, other.potionData) && Objects.equals(effects, other.effects) && Objects.equals(color, other.color);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hash(potionData, effects, color);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            PotionMeta potionMeta = (PotionMeta) getSourceMeta();
+            if (potionMeta == null) return;
             this.potionData = potionMeta.getBasePotionData();
-            this.effects = potionMeta.getCustomEffects();
+            this.effects = new ArrayList<>(potionMeta.getCustomEffects());
             this.color = potionMeta.getColor();
         }
 
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            PotionMeta meta = (PotionMeta) itemMeta;
+            if (potionData != null) meta.setBasePotionData(potionData);
+            meta.clearCustomEffects();
+            effects.forEach(effect -> meta.addCustomEffect(effect, false));
+            meta.setColor(color);
+        }
+
         public void setBasePotionData(PotionData data) {
+            load();
+            changed();
             this.potionData = data;
         }
 
         public PotionData getBasePotionData() {
+            load();
             return potionData;
         }
 
         public boolean hasCustomEffects() {
+            load();
             return !effects.isEmpty();
         }
 
         public List<PotionEffect> getCustomEffects() {
-            return effects;
+            load();
+            return new ChangeTrackingList<>(effects, this::changed);
         }
 
         public void addCustomEffect(PotionEffect effect, boolean overwrite) {
+            load();
+            changed();
             this.effects.add(effect);
         }
 
         public void removeCustomEffect(PotionEffectType type) {
+            load();
+            changed();
             effects.removeIf(effect -> effect.getType() == type);
         }
 
         public boolean hasCustomEffect(PotionEffectType type) {
+            load();
             for (PotionEffect effect : effects) if (effect.getType() == type) return true;
             return false;
         }
 
         public void clearCustomEffects() {
+            load();
+            changed();
             this.effects.clear();
         }
 
         public boolean hasColor() {
+            load();
             return color != null;
         }
 
         public Color getColor() {
+            load();
             return color;
         }
 
         public void setColor(Color color) {
+            load();
+            changed();
             this.color = color;
         }
     }
@@ -1061,6 +2001,7 @@ public class ItemBuilder {
     public static class Repairable extends ItemBuilder {
 
         private int repairCost;
+        private boolean loaded;
 
         public Repairable() {
         }
@@ -1079,20 +2020,60 @@ public class ItemBuilder {
         }
 
         public Repairable(ItemStack itemStack) {
-            org.bukkit.inventory.meta.Repairable repairable = (org.bukkit.inventory.meta.Repairable) itemStack.getItemMeta();
-            assert repairable != null;
+            super(itemStack);
+            checkSourceMeta(org.bukkit.inventory.meta.Repairable.class);
+        }
+
+        @Override
+        public Repairable copy() {
+            load();
+            return (Repairable) super.copy();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Repairable other = (Repairable) object;
+            load();
+            other.load();
+            return repairCost == other.repairCost;
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + repairCost;
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            org.bukkit.inventory.meta.Repairable repairable = (org.bukkit.inventory.meta.Repairable) getSourceMeta();
+            if (repairable == null) return;
             this.repairCost = repairable.getRepairCost();
         }
 
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            org.bukkit.inventory.meta.Repairable meta = (org.bukkit.inventory.meta.Repairable) itemMeta;
+            meta.setRepairCost(repairCost);
+        }
+
         public boolean hasRepairCost() {
+            load();
             return repairCost != 0;
         }
 
         public int getRepairCost() {
+            load();
             return repairCost;
         }
 
         public void setRepairCost(int cost) {
+            load();
+            changed();
             this.repairCost = cost;
         }
     }
@@ -1100,6 +2081,10 @@ public class ItemBuilder {
     public static class Skull extends ItemBuilder {
 
         OfflinePlayer owningPlayer;
+        private PlayerProfile ownerProfile;
+        private String texture;
+        private boolean placeholder;
+        private boolean loaded;
 
         public Skull() {
         }
@@ -1118,27 +2103,161 @@ public class ItemBuilder {
         }
 
         public Skull(ItemStack itemStack) {
-            SkullMeta meta = (SkullMeta) itemStack.getItemMeta();
-            assert meta != null;
+            super(itemStack);
+            checkSourceMeta(SkullMeta.class);
+        }
+
+        @Override
+        public Skull copy() {
+            load();
+            return (Skull) super.copy();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            Skull other = (Skull) object;
+            load();
+            other.load();
+            return Objects.equals(owningPlayer, other.owningPlayer) && Objects.equals(ownerProfile, other.ownerProfile) && Objects.equals(texture, other.texture);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hash(owningPlayer, ownerProfile, texture);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            SkullMeta meta = (SkullMeta) getSourceMeta();
+            if (meta == null) return;
             this.owningPlayer = meta.getOwningPlayer();
+            this.ownerProfile = meta.getOwnerProfile();
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (placeholder || !loaded && getSourceMeta() != null) return;
+            SkullMeta meta = (SkullMeta) itemMeta;
+
+            if (ownerProfile != null) meta.setOwnerProfile(ownerProfile);
+            else if (texture != null) meta.setOwnerProfile(SkullTextures.texturedProfile(texture));
+            else if (owningPlayer == null) meta.setOwningPlayer(null);
+            else {
+                // a resolved profile carries its textures, so the server has nothing left to look up
+                PlayerProfile resolved = SkullTextures.peek(owningPlayer.getUniqueId());
+                if (resolved != null) meta.setOwnerProfile(resolved);
+                else meta.setOwningPlayer(owningPlayer);
+            }
+        }
+
+        // async building
+        public CompletableFuture<ItemStack> buildAsync() {
+            return buildAsync(Runnable::run);
+        }
+
+        public CompletableFuture<ItemStack> buildAsync(Executor executor) {
+            if (!needsResolution()) return CompletableFuture.completedFuture(toItemStack());
+
+            ItemStack placeholder = toPlaceholder();
+            return SkullTextures.resolve(owningPlayer.getUniqueId())
+                    .thenApplyAsync(profile -> withProfile(placeholder, profile), executor);
+        }
+
+        // returns a head without textures right away and passes the textured head to the callback
+        public ItemStack buildAsync(Consumer<ItemStack> callback, Executor executor) {
+            if (!needsResolution()) return toItemStack();
+
+            ItemStack placeholder = toPlaceholder();
+            SkullTextures.resolve(owningPlayer.getUniqueId())
+                    .thenAcceptAsync(profile -> callback.accept(withProfile(placeholder, profile)), executor);
+            return placeholder;
+        }
+
+        private boolean needsResolution() {
+            load();
+            return ownerProfile == null && texture == null && owningPlayer != null
+                    && SkullTextures.peek(owningPlayer.getUniqueId()) == null;
+        }
+
+        // built from a copy, so a builder that other threads read is never changed
+        private ItemStack toPlaceholder() {
+            Skull skull = copy();
+            skull.placeholder = true;
+            return skull.toItemStack();
+        }
+
+        private static ItemStack withProfile(ItemStack placeholder, PlayerProfile profile) {
+            ItemStack itemStack = new ItemStack(placeholder.getType(), placeholder.getAmount());
+            SkullMeta meta = (SkullMeta) placeholder.getItemMeta();
+            assert meta != null;
+            meta.setOwnerProfile(profile);
+            itemStack.setItemMeta(meta);
+            ItemMetrics.recordMetaCopies(2);
+            return itemStack;
         }
 
         public boolean hasOwner() {
-            return owningPlayer != null;
+            load();
+            return owningPlayer != null || ownerProfile != null || texture != null;
         }
 
         public OfflinePlayer getOwningPlayer() {
+            load();
             return owningPlayer;
         }
 
         public void setOwningPlayer(OfflinePlayer owner) {
+            load();
+            changed();
             this.owningPlayer = owner;
+            this.ownerProfile = null;
+            this.texture = null;
+        }
+
+        public PlayerProfile getOwnerProfile() {
+            load();
+            return ownerProfile;
+        }
+
+        public void setOwnerProfile(PlayerProfile profile) {
+            load();
+            changed();
+            this.ownerProfile = profile;
+            this.owningPlayer = null;
+            this.texture = null;
+        }
+
+        public String getTexture() {
+            load();
+            return texture;
+        }
+
+        public void setTexture(String texture) {
+            load();
+            changed();
+            this.texture = texture;
+            this.owningPlayer = null;
+            this.ownerProfile = null;
+        }
+
+        // imported heads can carry an owner and a profile at once, the setters above each replace the others
+        void restoreOwner(OfflinePlayer owningPlayer, PlayerProfile ownerProfile, String texture) {
+            load();
+            changed();
+            this.owningPlayer = owningPlayer;
+            this.ownerProfile = ownerProfile;
+            this.texture = texture;
         }
     }
 
     public static class SuspiciousStew extends ItemBuilder {
 
         private List<PotionEffect> effects = new ArrayList<>();
+        private boolean loaded;
 
         public SuspiciousStew() {
         }
@@ -1157,33 +2276,81 @@ public class ItemBuilder {
         }
 
         public SuspiciousStew(ItemStack itemStack) {
-            SuspiciousStewMeta meta = (SuspiciousStewMeta) itemStack.getItemMeta();
-            assert meta != null;
-            this.effects = meta.getCustomEffects();
+            super(itemStack);
+            checkSourceMeta(SuspiciousStewMeta.class);
+        }
+
+        @Override
+        public SuspiciousStew copy() {
+            load();
+            SuspiciousStew copy = (SuspiciousStew) super.copy();
+            copy.effects = new ArrayList<>(effects);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            SuspiciousStew other = (SuspiciousStew) object;
+            load();
+            other.load();
+            return Objects.equals(effects, other.effects);
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hashCode(effects);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            SuspiciousStewMeta meta = (SuspiciousStewMeta) getSourceMeta();
+            if (meta == null) return;
+            this.effects = new ArrayList<>(meta.getCustomEffects());
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            SuspiciousStewMeta meta = (SuspiciousStewMeta) itemMeta;
+            meta.clearCustomEffects();
+            effects.forEach(effect -> meta.addCustomEffect(effect, false));
         }
 
         public boolean hasCustomEffects() {
+            load();
             return !effects.isEmpty();
         }
 
         public List<PotionEffect> getCustomEffects() {
-            return effects;
+            load();
+            return new ChangeTrackingList<>(effects, this::changed);
         }
 
         public void addCustomEffect(PotionEffect effect, boolean overwrite) {
+            load();
+            changed();
             this.effects.add(effect);
         }
 
         public void removeCustomEffect(PotionEffectType type) {
+            load();
+            changed();
             this.effects.removeIf(effect -> effect.getType() == type);
         }
 
         public boolean hasCustomEffect(PotionEffectType type) {
+            load();
             for (PotionEffect effect : effects) if (effect.getType() == type) return true;
             return false;
         }
 
         public void clearCustomEffects() {
+            load();
+            changed();
             this.effects.clear();
         }
     }
@@ -1194,6 +2361,7 @@ public class ItemBuilder {
         private DyeColor bodyColor;
         private TropicalFish.Pattern pattern;
         private boolean hasVariant = false;
+        private boolean loaded;
 
         public TropicalFishBucket() {
         }
@@ -1212,39 +2380,88 @@ public class ItemBuilder {
         }
 
         public TropicalFishBucket(ItemStack itemStack) {
-            TropicalFishBucketMeta meta = (TropicalFishBucketMeta) itemStack.getItemMeta();
-            assert meta != null;
+            super(itemStack);
+            checkSourceMeta(TropicalFishBucketMeta.class);
+        }
+
+        @Override
+        public TropicalFishBucket copy() {
+            load();
+            return (TropicalFishBucket) super.copy();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!super.equals(object)) return false;
+            TropicalFishBucket other = (TropicalFishBucket) object;
+            load();
+            other.load();
+            return Objects.equals(patternColor, other.patternColor) && Objects.equals(bodyColor, other.bodyColor) && Objects.equals(pattern, other.pattern) && hasVariant == other.hasVariant;
+        }
+
+        @Override
+        protected int computeHash() {
+            load();
+            return 31 * super.computeHash() + Objects.hash(patternColor, bodyColor, pattern, hasVariant);
+        }
+
+        private void load() {
+            if (loaded) return;
+            loaded = true;
+            TropicalFishBucketMeta meta = (TropicalFishBucketMeta) getSourceMeta();
+            if (meta == null) return;
+            this.hasVariant = meta.hasVariant();
+            if (!hasVariant) return;
             this.patternColor = meta.getPatternColor();
             this.bodyColor = meta.getBodyColor();
             this.pattern = meta.getPattern();
-            this.hasVariant = meta.hasVariant();
+        }
+
+        @Override
+        protected void applyMeta(ItemMeta itemMeta) {
+            super.applyMeta(itemMeta);
+            if (!loaded && getSourceMeta() != null) return;
+            TropicalFishBucketMeta meta = (TropicalFishBucketMeta) itemMeta;
+            if (pattern != null) meta.setPattern(pattern);
+            if (patternColor != null) meta.setPatternColor(patternColor);
+            if (bodyColor != null) meta.setBodyColor(bodyColor);
         }
 
         public DyeColor getPatternColor() {
+            load();
             return this.patternColor;
         }
 
         public void setPatternColor(DyeColor color) {
+            load();
+            changed();
             this.patternColor = color;
         }
 
         public DyeColor getBodyColor() {
+            load();
             return this.bodyColor;
         }
 
         public void setBodyColor(DyeColor color) {
+            load();
+            changed();
             this.bodyColor = color;
         }
 
         public TropicalFish.Pattern getPattern() {
+            load();
             return this.pattern;
         }
 
         public void setPattern(TropicalFish.Pattern pattern) {
+            load();
+            changed();
             this.pattern = pattern;
         }
 
         public boolean hasVariant() {
+            load();
             return hasVariant;
         }
     }
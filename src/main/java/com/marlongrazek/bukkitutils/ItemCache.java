@@ -0,0 +1,221 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+// shared by all plugins through the ServicesManager, every plugin uses its own namespace for keys
+public final class ItemCache {
+
+    private static final ItemMetrics.CacheStats STATS = ItemMetrics.getCache("item-cache");
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long mainMaximum;
+
+    // new entries go to a small window first and have to be more popular than the eldest main entry to stay
+    private final LinkedHashMap<NamespacedKey, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<NamespacedKey, Entry> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final Map<String, Long> namespaceWeights = new HashMap<>();
+    private long windowWeight;
+    private long mainWeight;
+
+    // weights are estimated in bytes
+    public ItemCache(long maximumWeight) {
+        if (maximumWeight < 1) throw new IllegalArgumentException("Maximum weight must be at least 1");
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.mainMaximum = maximumWeight - windowMaximum;
+        this.sketch = new FrequencySketch(256);
+    }
+
+    // lookups
+    public synchronized ItemStack get(NamespacedKey key) {
+        sketch.increment(key);
+
+        Entry entry = window.get(key);
+        if (entry == null) entry = main.get(key);
+
+        if (entry == null) {
+            STATS.miss();
+            return null;
+        }
+        STATS.hit();
+        return entry.template.toItemStack();
+    }
+
+    // the loader runs outside the lock, so two threads missing the same key may both build it
+    public ItemStack get(NamespacedKey key, Supplier<? extends ItemBuilder> loader) {
+        ItemStack itemStack = get(key);
+        if (itemStack != null) return itemStack;
+
+        ItemTemplate template = loader.get().freeze();
+        put(key, template);
+        return template.toItemStack();
+    }
+
+    public synchronized boolean contains(NamespacedKey key) {
+        return window.containsKey(key) || main.containsKey(key);
+    }
+
+    // changes
+    public void put(NamespacedKey key, ItemBuilder builder) {
+        put(key, builder.freeze());
+    }
+
+    public void put(NamespacedKey key, ItemTemplate template) {
+        put(new Entry(key, template, weigh(template.toItemStack())));
+    }
+
+    private synchronized void put(Entry entry) {
+        NamespacedKey key = entry.key;
+        sketch.increment(key);
+        invalidate(key);
+        if (entry.weight > maximumWeight) return;
+
+        window.put(key, entry);
+        windowWeight += entry.weight;
+        account(entry, entry.weight);
+        sketch.ensureCapacity(window.size() + main.size());
+
+        while (windowWeight > windowMaximum) {
+            Entry candidate = removeEldest(window);
+            windowWeight -= candidate.weight;
+            admit(candidate);
+        }
+    }
+
+    public synchronized void invalidate(NamespacedKey key) {
+        Entry entry = window.remove(key);
+        if (entry != null) windowWeight -= entry.weight;
+        else if ((entry = main.remove(key)) != null) mainWeight -= entry.weight;
+        if (entry != null) account(entry, -entry.weight);
+    }
+
+    public void invalidateAll(Plugin plugin) {
+        invalidateAll(namespaceOf(plugin));
+    }
+
+    public synchronized void invalidateAll(String namespace) {
+        windowWeight -= removeNamespace(window, namespace);
+        mainWeight -= removeNamespace(main, namespace);
+        namespaceWeights.remove(namespace);
+    }
+
+    public synchronized void invalidateAll() {
+        window.clear();
+        main.clear();
+        namespaceWeights.clear();
+        windowWeight = 0;
+        mainWeight = 0;
+    }
+
+    // getters
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public synchronized long getWeight() {
+        return windowWeight + mainWeight;
+    }
+
+    public long getWeight(Plugin plugin) {
+        return getWeight(namespaceOf(plugin));
+    }
+
+    public synchronized long getWeight(String namespace) {
+        return namespaceWeights.getOrDefault(namespace, 0L);
+    }
+
+    public synchronized Map<String, Long> getWeights() {
+        return Collections.unmodifiableMap(new TreeMap<>(namespaceWeights));
+    }
+
+    public synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    // the candidate is compared once with the eldest main entry, if it is more popular as many entries as needed make room
+    private void admit(Entry candidate) {
+        if (mainWeight + candidate.weight > mainMaximum) {
+            if (candidate.weight > mainMaximum
+                    || sketch.frequency(candidate.key) <= sketch.frequency(main.values().iterator().next().key)) {
+                account(candidate, -candidate.weight);
+                return;
+            }
+
+            while (mainWeight + candidate.weight > mainMaximum) {
+                Entry victim = removeEldest(main);
+                mainWeight -= victim.weight;
+                account(victim, -victim.weight);
+            }
+        }
+
+        main.put(candidate.key, candidate);
+        mainWeight += candidate.weight;
+    }
+
+    private void account(Entry entry, long weight) {
+        namespaceWeights.merge(entry.key.getNamespace(), weight, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private static Entry removeEldest(LinkedHashMap<NamespacedKey, Entry> entries) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        Entry eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+
+    private static long removeNamespace(LinkedHashMap<NamespacedKey, Entry> entries, String namespace) {
+        long removed = 0;
+        for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            Entry entry = iterator.next();
+            if (!entry.key.getNamespace().equals(namespace)) continue;
+            removed += entry.weight;
+            iterator.remove();
+        }
+        return removed;
+    }
+
+    private static String namespaceOf(Plugin plugin) {
+        return plugin.getName().toLowerCase(Locale.ROOT);
+    }
+
+    // a rough estimate of the retained size, strings are counted at two bytes per char
+    private static int weigh(ItemStack itemStack) {
+        int weight = 128;
+
+        ItemMeta meta = ItemMetrics.recordMetaCopy(itemStack.getItemMeta());
+        if (meta == null) return weight;
+
+        weight += 64;
+        if (meta.hasDisplayName()) weight += 40 + 2 * meta.getDisplayName().length();
+        if (meta.hasLore()) for (String line : meta.getLore()) weight += 40 + 2 * line.length();
+        weight += 32 * meta.getEnchants().size();
+        return weight;
+    }
+
+    private static final class Entry {
+
+        private final NamespacedKey key;
+        private final ItemTemplate template;
+        private final int weight;
+
+        private Entry(NamespacedKey key, ItemTemplate template, int weight) {
+            this.key = key;
+            this.template = template;
+            this.weight = weight;
+        }
+    }
+}
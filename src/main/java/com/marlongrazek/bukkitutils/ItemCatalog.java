@@ -0,0 +1,164 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public final class ItemCatalog {
+
+    private static final int MAGIC = 0x42554943;
+    private static final int VERSION = 1;
+
+    // magic, version, count, index offset
+    private static final int HEADER_SIZE = 16;
+
+    // key offset, key length, record offset, record length
+    private static final int INDEX_ENTRY_SIZE = 16;
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final int indexOffset;
+
+    private ItemCatalog(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC) throw new IOException("Not an item catalog");
+        if (buffer.getInt(4) != VERSION) throw new IOException("Unsupported item catalog version " + buffer.getInt(4));
+
+        this.size = buffer.getInt(8);
+        this.indexOffset = buffer.getInt(12);
+    }
+
+    // only the header is read, records and keys stay in the mapped file
+    public static ItemCatalog open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Item catalog is larger than 2 GB");
+            return new ItemCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static void write(Path path, Map<String, ? extends ItemBuilder> items) throws IOException {
+
+        // records and index are sorted by the unsigned bytes of their keys
+        List<byte[]> keys = new ArrayList<>(items.size());
+        List<ItemBuilder> builders = new ArrayList<>(items.size());
+        items.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue()))
+                .sorted((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()))
+                .forEachOrdered(entry -> {
+                    keys.add(entry.getKey());
+                    builders.add(entry.getValue());
+                });
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+
+            int[] recordOffsets = new int[keys.size()];
+            int[] recordLengths = new int[keys.size()];
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(keys.size());
+            out.writeInt(0);
+
+            for (int i = 0; i < builders.size(); i++) {
+                byte[] record = ItemCodec.encode(builders.get(i));
+                recordOffsets[i] = out.size();
+                recordLengths[i] = record.length;
+                out.write(record);
+            }
+
+            int indexOffset = out.size();
+            int keyOffset = indexOffset + keys.size() * INDEX_ENTRY_SIZE;
+            for (int i = 0; i < keys.size(); i++) {
+                out.writeInt(keyOffset);
+                out.writeInt(keys.get(i).length);
+                out.writeInt(recordOffsets[i]);
+                out.writeInt(recordLengths[i]);
+                keyOffset += keys.get(i).length;
+            }
+            for (byte[] key : keys) out.write(key);
+
+            if (out.size() == Integer.MAX_VALUE) throw new IOException("Item catalog is larger than 2 GB");
+
+            out.flush();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(4).putInt(0, indexOffset), 12);
+            }
+        }
+    }
+
+    // lookups
+    public ItemBuilder get(String key) {
+        int index = indexOf(key.getBytes(StandardCharsets.UTF_8));
+        if (index < 0) return null;
+
+        int entry = indexOffset + index * INDEX_ENTRY_SIZE;
+        int offset = buffer.getInt(entry + 8);
+        int length = buffer.getInt(entry + 12);
+
+        ByteBuffer record = buffer.duplicate();
+        record.position(offset).limit(offset + length);
+        return ItemCodec.decode(record.slice());
+    }
+
+    public ItemBuilder get(NamespacedKey key) {
+        return get(key.toString());
+    }
+
+    public ItemStack getItemStack(String key) {
+        ItemBuilder builder = get(key);
+        return builder != null ? builder.toItemStack() : null;
+    }
+
+    public ItemStack getItemStack(NamespacedKey key) {
+        return getItemStack(key.toString());
+    }
+
+    public boolean contains(String key) {
+        return indexOf(key.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int indexOf(byte[] key) {
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareKey(middle, key);
+
+            if (comparison < 0) low = middle + 1;
+            else if (comparison > 0) high = middle - 1;
+            else return middle;
+        }
+        return -(low + 1);
+    }
+
+    private int compareKey(int index, byte[] key) {
+        int entry = indexOffset + index * INDEX_ENTRY_SIZE;
+        int offset = buffer.getInt(entry);
+        int length = buffer.getInt(entry + 4);
+
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int comparison = Byte.compareUnsigned(buffer.get(offset + i), key[i]);
+            if (comparison != 0) return comparison;
+        }
+        return length - key.length;
+    }
+}
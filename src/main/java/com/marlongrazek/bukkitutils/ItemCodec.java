@@ -0,0 +1,839 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.*;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.block.banner.PatternType;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Axolotl;
+import org.bukkit.entity.TropicalFish;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.*;
+import org.bukkit.map.MapView;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.potion.PotionData;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.potion.PotionType;
+import org.bukkit.profile.PlayerProfile;
+import org.bukkit.profile.PlayerTextures;
+
+import java.io.*;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+
+public final class ItemCodec {
+
+    private static final int MAGIC = 0x42554942;
+    public static final int VERSION = 3;
+
+    private static final int END = 0;
+    private static final int RECORD = 1;
+
+    // string references: 0 is null, 1 is a new string written inline, n >= 2 points to string n - 2
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+
+    // persistent data types, append only
+    private static final List<PersistentDataType<?, ?>> DATA_TYPES = List.of(
+            PersistentDataType.BYTE,
+            PersistentDataType.SHORT,
+            PersistentDataType.INTEGER,
+            PersistentDataType.LONG,
+            PersistentDataType.FLOAT,
+            PersistentDataType.DOUBLE,
+            PersistentDataType.STRING,
+            PersistentDataType.BYTE_ARRAY,
+            PersistentDataType.INTEGER_ARRAY,
+            PersistentDataType.LONG_ARRAY
+    );
+
+    // type tags, append only
+    private static final List<Class<? extends ItemBuilder>> TYPES = List.of(
+            ItemBuilder.class,
+            ItemBuilder.AxolotlBucket.class,
+            ItemBuilder.Banner.class,
+            ItemBuilder.Book.class,
+            ItemBuilder.Bundle.class,
+            ItemBuilder.Compass.class,
+            ItemBuilder.Crossbow.class,
+            ItemBuilder.Damageable.class,
+            ItemBuilder.EnchantmentStorage.class,
+            ItemBuilder.FireworkEffect.class,
+            ItemBuilder.Firework.class,
+            ItemBuilder.KnowledgeBook.class,
+            ItemBuilder.LeatherArmor.class,
+            ItemBuilder.Map.class,
+            ItemBuilder.Potion.class,
+            ItemBuilder.Repairable.class,
+            ItemBuilder.Skull.class,
+            ItemBuilder.SuspiciousStew.class,
+            ItemBuilder.TropicalFishBucket.class
+    );
+
+    private static final List<Supplier<ItemBuilder>> FACTORIES = List.of(
+            ItemBuilder::new,
+            ItemBuilder.AxolotlBucket::new,
+            ItemBuilder.Banner::new,
+            ItemBuilder.Book::new,
+            ItemBuilder.Bundle::new,
+            ItemBuilder.Compass::new,
+            ItemBuilder.Crossbow::new,
+            ItemBuilder.Damageable::new,
+            ItemBuilder.EnchantmentStorage::new,
+            ItemBuilder.FireworkEffect::new,
+            ItemBuilder.Firework::new,
+            ItemBuilder.KnowledgeBook::new,
+            ItemBuilder.LeatherArmor::new,
+            ItemBuilder.Map::new,
+            ItemBuilder.Potion::new,
+            ItemBuilder.Repairable::new,
+            ItemBuilder.Skull::new,
+            ItemBuilder.SuspiciousStew::new,
+            ItemBuilder.TropicalFishBucket::new
+    );
+
+    private ItemCodec() {
+    }
+
+    // single records
+    public static byte[] encode(ItemBuilder builder) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            Writer writer = new Writer(new DataOutputStream(bytes));
+            writer.write(builder);
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static ItemBuilder decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    public static ItemBuilder decode(ByteBuffer buffer) {
+        try {
+            return new Reader(new DataInputStream(new ByteBufferInputStream(buffer))).read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static final class Writer {
+
+        private final DataOutput out;
+        private final java.util.Map<String, Integer> strings = new HashMap<>();
+
+        public Writer(DataOutput out) throws IOException {
+            this.out = out;
+            out.writeInt(MAGIC);
+            writeVarInt(VERSION);
+        }
+
+        public void write(ItemBuilder builder) throws IOException {
+            writeVarInt(RECORD);
+            writeItem(builder);
+        }
+
+        public void finish() throws IOException {
+            writeVarInt(END);
+        }
+
+        private void writeItem(ItemBuilder builder) throws IOException {
+
+            int type = TYPES.indexOf(builder.getClass());
+            if (type == -1) throw new IllegalArgumentException("Unsupported builder type " + builder.getClass().getName());
+
+            writeVarInt(type);
+            writeString(builder.getMaterial() != null ? builder.getMaterial().name() : null);
+            writeVarInt(builder.getAmount());
+            writeString(builder.getName());
+            writeStrings(builder.getLore());
+            writeEnchantments(builder.getEnchantments());
+
+            List<ItemFlag> itemFlags = builder.getItemFlags();
+            writeVarInt(itemFlags.size());
+            for (ItemFlag itemFlag : itemFlags) writeString(itemFlag.name());
+
+            writeData(mergeData(builder));
+
+            switch (type) {
+                case 1: {
+                    ItemBuilder.AxolotlBucket item = (ItemBuilder.AxolotlBucket) builder;
+                    writeEnum(item.getVariant());
+                    break;
+                }
+                case 2: {
+                    ItemBuilder.Banner item = (ItemBuilder.Banner) builder;
+                    writeVarInt(item.numberOfPatterns());
+                    for (Pattern pattern : item.getPatterns()) {
+                        writeEnum(pattern.getColor());
+                        writeString(pattern.getPattern().getIdentifier());
+                    }
+                    break;
+                }
+                case 3: {
+                    ItemBuilder.Book item = (ItemBuilder.Book) builder;
+                    writeString(item.getTitle());
+                    writeString(item.getAuthor());
+                    writeEnum(item.getGeneration());
+                    writeStrings(item.getPages());
+                    break;
+                }
+                case 4:
+                    writeItemStacks(((ItemBuilder.Bundle) builder).getItems());
+                    break;
+                case 5: {
+                    ItemBuilder.Compass item = (ItemBuilder.Compass) builder;
+                    writeLocation(item.getLodestone());
+                    out.writeBoolean(item.isLodestoneTracked());
+                    break;
+                }
+                case 6:
+                    writeItemStacks(((ItemBuilder.Crossbow) builder).getChargedProjectiles());
+                    break;
+                case 7: {
+                    ItemBuilder.Damageable item = (ItemBuilder.Damageable) builder;
+                    out.writeBoolean(item.hasDamage());
+                    if (item.hasDamage()) writeVarInt(item.getDamage());
+                    break;
+                }
+                case 8:
+                    writeEnchantments(((ItemBuilder.EnchantmentStorage) builder).getStoredEnchants());
+                    break;
+                case 9:
+                    writeFireworkEffect(((ItemBuilder.FireworkEffect) builder).getEffect());
+                    break;
+                case 10: {
+                    ItemBuilder.Firework item = (ItemBuilder.Firework) builder;
+                    writeVarInt(item.getPower());
+                    writeVarInt(item.getEffectsSize());
+                    for (org.bukkit.FireworkEffect effect : item.getEffects()) writeFireworkEffect(effect);
+                    break;
+                }
+                case 11: {
+                    List<NamespacedKey> recipes = ((ItemBuilder.KnowledgeBook) builder).getRecipes();
+                    writeVarInt(recipes.size());
+                    for (NamespacedKey recipe : recipes) writeString(recipe.toString());
+                    break;
+                }
+                case 12:
+                    writeColor(((ItemBuilder.LeatherArmor) builder).getColor());
+                    break;
+                case 13: {
+                    ItemBuilder.Map item = (ItemBuilder.Map) builder;
+                    writeColor(item.getColor());
+                    writeString(item.getLocationName());
+                    out.writeBoolean(item.hasMapView());
+                    if (item.hasMapView()) writeVarInt(item.getMapView().getId());
+                    out.writeBoolean(item.isScaling());
+                    break;
+                }
+                case 14: {
+                    ItemBuilder.Potion item = (ItemBuilder.Potion) builder;
+                    PotionData data = item.getBasePotionData();
+                    out.writeBoolean(data != null);
+                    if (data != null) {
+                        writeEnum(data.getType());
+                        out.writeBoolean(data.isExtended());
+                        out.writeBoolean(data.isUpgraded());
+                    }
+                    writePotionEffects(item.getCustomEffects());
+                    writeColor(item.getColor());
+                    break;
+                }
+                case 15:
+                    writeVarInt(((ItemBuilder.Repairable) builder).getRepairCost());
+                    break;
+                case 16: {
+                    ItemBuilder.Skull item = (ItemBuilder.Skull) builder;
+                    OfflinePlayer owner = item.getOwningPlayer();
+                    writeUuid(owner != null ? owner.getUniqueId() : null);
+                    writeString(item.getTexture());
+                    writeProfile(item.getOwnerProfile());
+                    break;
+                }
+                case 17:
+                    writePotionEffects(((ItemBuilder.SuspiciousStew) builder).getCustomEffects());
+                    break;
+                case 18: {
+                    ItemBuilder.TropicalFishBucket item = (ItemBuilder.TropicalFishBucket) builder;
+                    writeEnum(item.getPattern());
+                    writeEnum(item.getPatternColor());
+                    writeEnum(item.getBodyColor());
+                    break;
+                }
+            }
+        }
+
+        private void writeItemStacks(List<ItemStack> items) throws IOException {
+            writeVarInt(items.size());
+            // nested stacks are stored as builders of their meta type
+            for (ItemStack item : items) writeItem(ItemBuilder.of(item));
+        }
+
+        // imported metas keep the entries the builder did not change, so the record holds all of the item's data
+        private static java.util.Map<DataKey<?, ?>, Object> mergeData(ItemBuilder builder) {
+            java.util.Map<DataKey<?, ?>, Object> changes = builder.getDataChanges();
+            ItemMeta source = builder.getSourceMeta();
+            if (source == null) return changes;
+
+            PersistentDataContainer container = source.getPersistentDataContainer();
+            if (container.isEmpty()) return changes;
+
+            // a change replaces or removes the entry whatever its type
+            Set<NamespacedKey> changed = new HashSet<>();
+            for (DataKey<?, ?> key : changes.keySet()) changed.add(key.getKey());
+
+            java.util.Map<DataKey<?, ?>, Object> data = new LinkedHashMap<>();
+            for (NamespacedKey key : container.getKeys()) {
+                if (changed.contains(key)) continue;
+                PersistentDataType<?, ?> type = typeOf(container, key);
+                data.put(DataKey.of(key, type), container.get(key, type));
+            }
+            data.putAll(changes);
+            return data;
+        }
+
+        private static PersistentDataType<?, ?> typeOf(PersistentDataContainer container, NamespacedKey key) {
+            for (PersistentDataType<?, ?> type : DATA_TYPES) if (container.has(key, type)) return type;
+            throw new IllegalArgumentException("Unsupported data type of key " + key);
+        }
+
+        // since version 3, only the built-in data types can be written
+        private void writeData(java.util.Map<DataKey<?, ?>, Object> data) throws IOException {
+            int size = 0;
+            for (Object value : data.values()) if (value != null) size++;
+            writeVarInt(size);
+
+            for (java.util.Map.Entry<DataKey<?, ?>, Object> entry : data.entrySet()) {
+                Object value = entry.getValue();
+                if (value == null) continue;
+
+                int type = DATA_TYPES.indexOf(entry.getKey().getType());
+                if (type == -1) throw new IllegalArgumentException("Unsupported data type of key " + entry.getKey());
+
+                writeString(entry.getKey().getKey().toString());
+                writeVarInt(type);
+                switch (type) {
+                    case 0:
+                        out.writeByte((Byte) value);
+                        break;
+                    case 1:
+                        out.writeShort((Short) value);
+                        break;
+                    case 2:
+                        out.writeInt((Integer) value);
+                        break;
+                    case 3:
+                        out.writeLong((Long) value);
+                        break;
+                    case 4:
+                        out.writeFloat((Float) value);
+                        break;
+                    case 5:
+                        out.writeDouble((Double) value);
+                        break;
+                    case 6:
+                        writeString((String) value);
+                        break;
+                    case 7: {
+                        byte[] bytes = (byte[]) value;
+                        writeVarInt(bytes.length);
+                        out.write(bytes);
+                        break;
+                    }
+                    case 8: {
+                        int[] ints = (int[]) value;
+                        writeVarInt(ints.length);
+                        for (int i : ints) out.writeInt(i);
+                        break;
+                    }
+                    case 9: {
+                        long[] longs = (long[]) value;
+                        writeVarInt(longs.length);
+                        for (long l : longs) out.writeLong(l);
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void writeEnchantments(java.util.Map<Enchantment, Integer> enchantments) throws IOException {
+            writeVarInt(enchantments.size());
+            for (java.util.Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
+                writeString(entry.getKey().getKey().toString());
+                writeVarInt(entry.getValue());
+            }
+        }
+
+        private void writePotionEffects(List<PotionEffect> effects) throws IOException {
+            writeVarInt(effects.size());
+            for (PotionEffect effect : effects) {
+                writeString(effect.getType().getName());
+                out.writeInt(effect.getDuration());
+                writeVarInt(effect.getAmplifier());
+                out.writeBoolean(effect.isAmbient());
+                out.writeBoolean(effect.hasParticles());
+                out.writeBoolean(effect.hasIcon());
+            }
+        }
+
+        private void writeFireworkEffect(org.bukkit.FireworkEffect effect) throws IOException {
+            out.writeBoolean(effect != null);
+            if (effect == null) return;
+
+            writeEnum(effect.getType());
+            out.writeBoolean(effect.hasFlicker());
+            out.writeBoolean(effect.hasTrail());
+            writeVarInt(effect.getColors().size());
+            for (Color color : effect.getColors()) out.writeInt(color.asRGB());
+            writeVarInt(effect.getFadeColors().size());
+            for (Color color : effect.getFadeColors()) out.writeInt(color.asRGB());
+        }
+
+        private void writeLocation(Location location) throws IOException {
+            out.writeBoolean(location != null);
+            if (location == null) return;
+
+            writeString(location.getWorld() != null ? location.getWorld().getName() : null);
+            out.writeDouble(location.getX());
+            out.writeDouble(location.getY());
+            out.writeDouble(location.getZ());
+            out.writeFloat(location.getYaw());
+            out.writeFloat(location.getPitch());
+        }
+
+        private void writeUuid(UUID uuid) throws IOException {
+            out.writeBoolean(uuid != null);
+            if (uuid == null) return;
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+
+        // the skin url is all a head needs, so the profile is rebuilt from it instead of keeping every property
+        private void writeProfile(PlayerProfile profile) throws IOException {
+            out.writeBoolean(profile != null);
+            if (profile == null) return;
+            writeUuid(profile.getUniqueId());
+            writeString(profile.getName());
+            URL skin = profile.getTextures().getSkin();
+            writeString(skin != null ? skin.toExternalForm() : null);
+        }
+
+        private void writeColor(Color color) throws IOException {
+            out.writeBoolean(color != null);
+            if (color != null) out.writeInt(color.asRGB());
+        }
+
+        private void writeEnum(Enum<?> value) throws IOException {
+            writeString(value != null ? value.name() : null);
+        }
+
+        private void writeStrings(List<String> values) throws IOException {
+            if (values == null) {
+                writeVarInt(0);
+                return;
+            }
+            writeVarInt(values.size() + 1);
+            for (String value : values) writeString(value);
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(NULL_STRING);
+                return;
+            }
+
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(index + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(NEW_STRING);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    public static final class Reader {
+
+        private final DataInput in;
+        private final List<String> strings = new ArrayList<>();
+        private final int version;
+        private boolean finished;
+
+        public Reader(DataInput in) throws IOException {
+            this.in = in;
+            if (in.readInt() != MAGIC) throw new IOException("Not an item stream");
+
+            this.version = readVarInt();
+            if (version > VERSION) throw new IOException("Unsupported item stream version " + version);
+        }
+
+        // returns null once the end of the stream is reached
+        public ItemBuilder read() throws IOException {
+            if (finished) return null;
+
+            int marker = readVarInt();
+            if (marker == END) {
+                finished = true;
+                return null;
+            }
+            if (marker != RECORD) throw new IOException("Corrupt item stream");
+
+            return readItem();
+        }
+
+        private ItemBuilder readItem() throws IOException {
+
+            int type = readVarInt();
+            if (type >= TYPES.size()) throw new IOException("Unknown builder type " + type);
+
+            ItemBuilder builder = FACTORIES.get(type).get();
+
+            String material = readString();
+            if (material != null) builder.setMaterial(Material.getMaterial(material));
+            builder.setAmount(readVarInt());
+            builder.setName(readString());
+            builder.setLore(readStrings());
+            builder.setEnchantments(readEnchantments());
+
+            int itemFlags = readVarInt();
+            ItemFlag[] flags = new ItemFlag[itemFlags];
+            for (int i = 0; i < itemFlags; i++) flags[i] = ItemFlag.valueOf(readString());
+            builder.setItemFlags(flags);
+
+            if (version >= 3) builder.setData(readData());
+
+            switch (type) {
+                case 1:
+                    ((ItemBuilder.AxolotlBucket) builder).setVariant(readEnum(Axolotl.Variant.class));
+                    break;
+                case 2: {
+                    ItemBuilder.Banner item = (ItemBuilder.Banner) builder;
+                    int patterns = readVarInt();
+                    for (int i = 0; i < patterns; i++) {
+                        DyeColor color = readEnum(DyeColor.class);
+                        item.addPattern(new Pattern(color, PatternType.getByIdentifier(readString())));
+                    }
+                    break;
+                }
+                case 3: {
+                    ItemBuilder.Book item = (ItemBuilder.Book) builder;
+                    item.setTitle(readString());
+                    item.setAuthor(readString());
+                    item.setGeneration(readEnum(BookMeta.Generation.class));
+                    List<String> pages = readStrings();
+                    item.setPages(pages != null ? pages : new ArrayList<>());
+                    break;
+                }
+                case 4:
+                    ((ItemBuilder.Bundle) builder).setItems(readItemStacks());
+                    break;
+                case 5: {
+                    ItemBuilder.Compass item = (ItemBuilder.Compass) builder;
+                    item.setLodestone(readLocation());
+                    item.setLodestoneTracked(in.readBoolean());
+                    break;
+                }
+                case 6:
+                    ((ItemBuilder.Crossbow) builder).setChargedProjectiles(readItemStacks());
+                    break;
+                case 7:
+                    if (in.readBoolean()) ((ItemBuilder.Damageable) builder).setDamage(readVarInt());
+                    break;
+                case 8: {
+                    ItemBuilder.EnchantmentStorage item = (ItemBuilder.EnchantmentStorage) builder;
+                    readEnchantments().forEach((enchantment, level) -> item.addStoredEnchant(enchantment, level, true));
+                    break;
+                }
+                case 9:
+                    ((ItemBuilder.FireworkEffect) builder).setEffect(readFireworkEffect());
+                    break;
+                case 10: {
+                    ItemBuilder.Firework item = (ItemBuilder.Firework) builder;
+                    item.setPower(readVarInt());
+                    int effects = readVarInt();
+                    for (int i = 0; i < effects; i++) item.addEffect(readFireworkEffect());
+                    break;
+                }
+                case 11: {
+                    ItemBuilder.KnowledgeBook item = (ItemBuilder.KnowledgeBook) builder;
+                    int recipes = readVarInt();
+                    for (int i = 0; i < recipes; i++) item.addRecipe(NamespacedKey.fromString(readString()));
+                    break;
+                }
+                case 12:
+                    ((ItemBuilder.LeatherArmor) builder).setColor(readColor());
+                    break;
+                case 13: {
+                    ItemBuilder.Map item = (ItemBuilder.Map) builder;
+                    item.setColor(readColor());
+                    item.setLocationName(readString());
+                    if (in.readBoolean()) item.setMapView(readMapView(readVarInt()));
+                    item.setScaling(in.readBoolean());
+                    break;
+                }
+                case 14: {
+                    ItemBuilder.Potion item = (ItemBuilder.Potion) builder;
+                    if (in.readBoolean()) {
+                        PotionType potionType = readEnum(PotionType.class);
+                        item.setBasePotionData(new PotionData(potionType, in.readBoolean(), in.readBoolean()));
+                    }
+                    for (PotionEffect effect : readPotionEffects()) item.addCustomEffect(effect, false);
+                    item.setColor(readColor());
+                    break;
+                }
+                case 15:
+                    ((ItemBuilder.Repairable) builder).setRepairCost(readVarInt());
+                    break;
+                case 16: {
+                    UUID owner = readUuid();
+
+                    // before version 2 only the owner was written
+                    String texture = version >= 2 ? readString() : null;
+                    PlayerProfile profile = version >= 2 ? readProfile() : null;
+
+                    ((ItemBuilder.Skull) builder).restoreOwner(owner != null ? Bukkit.getOfflinePlayer(owner) : null, profile, texture);
+                    break;
+                }
+                case 17: {
+                    ItemBuilder.SuspiciousStew item = (ItemBuilder.SuspiciousStew) builder;
+                    for (PotionEffect effect : readPotionEffects()) item.addCustomEffect(effect, false);
+                    break;
+                }
+                case 18: {
+                    ItemBuilder.TropicalFishBucket item = (ItemBuilder.TropicalFishBucket) builder;
+                    item.setPattern(readEnum(TropicalFish.Pattern.class));
+                    item.setPatternColor(readEnum(DyeColor.class));
+                    item.setBodyColor(readEnum(DyeColor.class));
+                    break;
+                }
+            }
+            return builder;
+        }
+
+        @SuppressWarnings("deprecation")
+        private MapView readMapView(int id) {
+            return Bukkit.getMap(id);
+        }
+
+        private List<ItemStack> readItemStacks() throws IOException {
+            int size = readVarInt();
+            List<ItemStack> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) items.add(readItem().toItemStack());
+            return items;
+        }
+
+        private java.util.Map<DataKey<?, ?>, Object> readData() throws IOException {
+            int size = readVarInt();
+            java.util.Map<DataKey<?, ?>, Object> data = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                NamespacedKey key = NamespacedKey.fromString(readString());
+                int type = readVarInt();
+                if (type >= DATA_TYPES.size()) throw new IOException("Unknown data type " + type);
+
+                Object value;
+                switch (type) {
+                    case 0:
+                        value = in.readByte();
+                        break;
+                    case 1:
+                        value = in.readShort();
+                        break;
+                    case 2:
+                        value = in.readInt();
+                        break;
+                    case 3:
+                        value = in.readLong();
+                        break;
+                    case 4:
+                        value = in.readFloat();
+                        break;
+                    case 5:
+                        value = in.readDouble();
+                        break;
+                    case 6:
+                        value = readString();
+                        break;
+                    case 7: {
+                        byte[] bytes = new byte[readVarInt()];
+                        in.readFully(bytes);
+                        value = bytes;
+                        break;
+                    }
+                    case 8: {
+                        int[] ints = new int[readVarInt()];
+                        for (int j = 0; j < ints.length; j++) ints[j] = in.readInt();
+                        value = ints;
+                        break;
+                    }
+                    default: {
+                        long[] longs = new long[readVarInt()];
+                        for (int j = 0; j < longs.length; j++) longs[j] = in.readLong();
+                        value = longs;
+                        break;
+                    }
+                }
+                if (key != null) data.put(DataKey.of(key, DATA_TYPES.get(type)), value);
+            }
+            return data;
+        }
+
+        private java.util.Map<Enchantment, Integer> readEnchantments() throws IOException {
+            int size = readVarInt();
+            java.util.Map<Enchantment, Integer> enchantments = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                Enchantment enchantment = Enchantment.getByKey(NamespacedKey.fromString(readString()));
+                int level = readVarInt();
+                if (enchantment != null) enchantments.put(enchantment, level);
+            }
+            return enchantments;
+        }
+
+        private List<PotionEffect> readPotionEffects() throws IOException {
+            int size = readVarInt();
+            List<PotionEffect> effects = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                PotionEffectType type = PotionEffectType.getByName(readString());
+                int duration = in.readInt();
+                int amplifier = readVarInt();
+                boolean ambient = in.readBoolean();
+                boolean particles = in.readBoolean();
+                boolean icon = in.readBoolean();
+                if (type != null) effects.add(new PotionEffect(type, duration, amplifier, ambient, particles, icon));
+            }
+            return effects;
+        }
+
+        private org.bukkit.FireworkEffect readFireworkEffect() throws IOException {
+            if (!in.readBoolean()) return null;
+
+            org.bukkit.FireworkEffect.Builder effect = org.bukkit.FireworkEffect.builder()
+                    .with(readEnum(org.bukkit.FireworkEffect.Type.class))
+                    .flicker(in.readBoolean())
+                    .trail(in.readBoolean());
+
+            int colors = readVarInt();
+            List<Color> colorList = new ArrayList<>(colors);
+            for (int i = 0; i < colors; i++) colorList.add(Color.fromRGB(in.readInt()));
+
+            int fadeColors = readVarInt();
+            List<Color> fadeColorList = new ArrayList<>(fadeColors);
+            for (int i = 0; i < fadeColors; i++) fadeColorList.add(Color.fromRGB(in.readInt()));
+
+            return effect.withColor(colorList).withFade(fadeColorList).build();
+        }
+
+        private Location readLocation() throws IOException {
+            if (!in.readBoolean()) return null;
+
+            String world = readString();
+            return new Location(world != null ? Bukkit.getWorld(world) : null,
+                    in.readDouble(), in.readDouble(), in.readDouble(), in.readFloat(), in.readFloat());
+        }
+
+        private UUID readUuid() throws IOException {
+            return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+        }
+
+        private PlayerProfile readProfile() throws IOException {
+            if (!in.readBoolean()) return null;
+
+            PlayerProfile profile = Bukkit.createPlayerProfile(readUuid(), readString());
+            String skin = readString();
+            if (skin != null) {
+                PlayerTextures textures = profile.getTextures();
+                try {
+                    textures.setSkin(new URL(skin));
+                } catch (MalformedURLException e) {
+                    throw new IOException("Invalid skin url " + skin, e);
+                }
+                profile.setTextures(textures);
+            }
+            return profile;
+        }
+
+        private Color readColor() throws IOException {
+            return in.readBoolean() ? Color.fromRGB(in.readInt()) : null;
+        }
+
+        private <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+            String name = readString();
+            return name != null ? Enum.valueOf(type, name) : null;
+        }
+
+        private List<String> readStrings() throws IOException {
+            int size = readVarInt() - 1;
+            if (size == -1) return null;
+
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) values.add(readString());
+            return values;
+        }
+
+        private String readString() throws IOException {
+            int reference = readVarInt();
+            if (reference == NULL_STRING) return null;
+            if (reference != NEW_STRING) return strings.get(reference - 2);
+
+            byte[] bytes = new byte[readVarInt()];
+            in.readFully(bytes);
+
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = in.readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("VarInt too long");
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) return -1;
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// disabled by default, builds then only pay for reading one volatile flag
+public final class ItemMetrics {
+
+    private static volatile boolean enabled;
+
+    private static final ConcurrentMap<Class<?>, BuildStats> BUILDS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, CacheStats> CACHES = new ConcurrentHashMap<>();
+    private static final LongAdder META_COPIES = new LongAdder();
+
+    private ItemMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        ItemMetrics.enabled = enabled;
+    }
+
+    public static void reset() {
+        BUILDS.values().forEach(stats -> stats.latency.reset());
+        CACHES.values().forEach(CacheStats::reset);
+        META_COPIES.reset();
+    }
+
+    // recording
+    static void recordBuild(Class<?> type, long nanos) {
+        BuildStats stats = BUILDS.get(type);
+        if (stats == null) stats = BUILDS.computeIfAbsent(type, BuildStats::new);
+        stats.latency.record(nanos);
+    }
+
+    static void recordMetaCopies(int copies) {
+        if (enabled) META_COPIES.add(copies);
+    }
+
+    // for getItemMeta and ItemMeta.clone, which only copy when there is a meta to return
+    static <M extends ItemMeta> M recordMetaCopy(M meta) {
+        if (enabled && meta != null) META_COPIES.increment();
+        return meta;
+    }
+
+    // caches keep their stats object and report to it while metrics are enabled
+    public static CacheStats getCache(String name) {
+        return CACHES.computeIfAbsent(name, CacheStats::new);
+    }
+
+    // getters
+    public static Map<String, BuildStats> getBuildStats() {
+        Map<String, BuildStats> stats = new TreeMap<>();
+        BUILDS.values().forEach(build -> stats.put(build.getName(), build));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public static Map<String, CacheStats> getCacheStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(CACHES));
+    }
+
+    // metas copied or created by getItemMeta, ItemMeta.clone, ItemStack.clone and setItemMeta, counted where they are called
+    public static long getMetaCopies() {
+        return META_COPIES.sum();
+    }
+
+    public static final class BuildStats {
+
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private BuildStats(Class<?> type) {
+            this.name = type.getName().substring(type.getPackageName().length() + 1).replace('$', '.');
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public long getTotalNanos() {
+            return latency.getTotal();
+        }
+
+        public long getMaxNanos() {
+            return latency.getMax();
+        }
+
+        public long getPercentileNanos(double percentile) {
+            return latency.getPercentile(percentile);
+        }
+    }
+
+    public static final class CacheStats {
+
+        private final String name;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private CacheStats(String name) {
+            this.name = name;
+        }
+
+        public void hit() {
+            if (enabled) hits.increment();
+        }
+
+        public void miss() {
+            if (enabled) misses.increment();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public double getHitRate() {
+            long hits = getHits();
+            long requests = hits + getMisses();
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        private void reset() {
+            hits.reset();
+            misses.reset();
+        }
+    }
+}
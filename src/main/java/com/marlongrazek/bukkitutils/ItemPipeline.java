@@ -0,0 +1,129 @@
+package com.marlongrazek.bukkitutils;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+// every stage pulls from the one before, so nothing is read ahead of what the consumer and the transform window need
+public final class ItemPipeline {
+
+    private ItemPipeline() {
+    }
+
+    // decodes one record per call to next, the stream is closed at its end
+    public static Iterator<ItemBuilder> read(InputStream in) {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(in));
+        ItemCodec.Reader reader;
+        try {
+            reader = new ItemCodec.Reader(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Iterator<>() {
+            private ItemBuilder next;
+            private boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                if (next != null) return true;
+                if (finished) return false;
+                try {
+                    next = reader.read();
+                    if (next == null) {
+                        finished = true;
+                        input.close();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return next != null;
+            }
+
+            @Override
+            public ItemBuilder next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ItemBuilder builder = next;
+                next = null;
+                return builder;
+            }
+        };
+    }
+
+    // encodes the items in order and returns how many were written, the stream is left open
+    public static long write(Iterator<? extends ItemBuilder> items, OutputStream out) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(out));
+        ItemCodec.Writer writer = new ItemCodec.Writer(output);
+
+        long count = 0;
+        while (items.hasNext()) {
+            writer.write(items.next());
+            count++;
+        }
+        writer.finish();
+        output.flush();
+        return count;
+    }
+
+    public static <T, R> Iterator<R> map(Iterator<T> source, Function<? super T, ? extends R> transform, int parallelism) {
+        return map(source, transform, parallelism, ForkJoinPool.commonPool());
+    }
+
+    // transforms up to parallelism items at once and returns them in source order, null results are skipped
+    public static <T, R> Iterator<R> map(Iterator<T> source, Function<? super T, ? extends R> transform, int parallelism,
+                                         Executor executor) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+
+        return new Iterator<>() {
+            private final ArrayDeque<CompletableFuture<R>> window = new ArrayDeque<>(parallelism);
+            private R next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    while (window.size() < parallelism && source.hasNext()) {
+                        T item = source.next();
+                        window.add(CompletableFuture.supplyAsync(() -> transform.apply(item), executor));
+                    }
+                    if (window.isEmpty()) return false;
+                    next = join(window.poll());
+                }
+                return true;
+            }
+
+            @Override
+            public R next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                R result = next;
+                next = null;
+                return result;
+            }
+        };
+    }
+
+    // reads, transforms and writes one stream into another and returns how many items were written
+    public static long transfer(InputStream in, OutputStream out, Function<? super ItemBuilder, ? extends ItemBuilder> transform,
+                                int parallelism) throws IOException {
+        try {
+            return write(map(read(in), transform, parallelism), out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public final class ItemPool {
+
+    private static final ItemMetrics.CacheStats STATS = ItemMetrics.getCache("item-pool");
+
+    private final ConcurrentMap<ItemBuilder, Entry> entries = new ConcurrentHashMap<>();
+
+    // the canonical builder equal to the given one, it is shared and must not be modified
+    @SuppressWarnings("unchecked")
+    public <T extends ItemBuilder> T intern(T builder) {
+        return (T) entry(builder).builder;
+    }
+
+    public ItemTemplate getTemplate(ItemBuilder builder) {
+        return entry(builder).template();
+    }
+
+    public ItemStack toItemStack(ItemBuilder builder) {
+        return getTemplate(builder).toItemStack();
+    }
+
+    public boolean contains(ItemBuilder builder) {
+        return entries.containsKey(builder);
+    }
+
+    public void remove(ItemBuilder builder) {
+        entries.remove(builder);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry entry(ItemBuilder builder) {
+        Entry entry = entries.get(builder);
+        if (entry != null) {
+            STATS.hit();
+            return entry;
+        }
+        STATS.miss();
+
+        // the pool keeps its own copy, so the caller may go on changing the builder
+        ItemBuilder canonical = builder.copy();
+        Entry created = new Entry(canonical);
+        entry = entries.putIfAbsent(canonical, created);
+        return entry != null ? entry : created;
+    }
+
+    private static final class Entry {
+
+        private final ItemBuilder builder;
+        private volatile ItemTemplate template;
+
+        private Entry(ItemBuilder builder) {
+            this.builder = builder;
+        }
+
+        private ItemTemplate template() {
+            ItemTemplate template = this.template;
+            if (template == null) this.template = template = builder.freeze();
+            return template;
+        }
+    }
+}
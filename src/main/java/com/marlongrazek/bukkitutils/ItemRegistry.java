@@ -0,0 +1,199 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+// registered builders carry their id, stamp and key in the persistent data of every item built from them
+public final class ItemRegistry {
+
+    private final DataKey<Integer, Integer> idKey;
+    private final DataKey<Long, Long> stampKey;
+    private final DataKey<String, String> entryKey;
+
+    // stamps start at a random value, so ids from older registrations or an earlier run fail the stamp check
+    private long nextStamp = ThreadLocalRandom.current().nextLong();
+
+    // ids are indices, so resolving an item is one array read and one long compare
+    private volatile Entry[] entries = new Entry[64];
+    private final Map<String, Entry> keys = new ConcurrentHashMap<>();
+    private int nextId = 1;
+
+    // ids of removed entries are handed out again
+    private int[] freeIds = new int[16];
+    private int freeCount;
+
+    public ItemRegistry(Plugin plugin) {
+        this(plugin, "item-id");
+    }
+
+    public ItemRegistry(Plugin plugin, String key) {
+        this.idKey = DataKey.of(plugin, key, PersistentDataType.INTEGER);
+        this.stampKey = DataKey.of(plugin, key + "-stamp", PersistentDataType.LONG);
+        this.entryKey = DataKey.of(plugin, key + "-key", PersistentDataType.STRING);
+    }
+
+    public int register(ItemBuilder builder) {
+        return register(builder, null);
+    }
+
+    // builders registered without a key only resolve in the registry that built them, and only until they are removed.
+    // Registering a builder again replaces its handler, items already built from it keep resolving
+    public synchronized int register(ItemBuilder builder, Consumer<InventoryClickEvent> handler) {
+        Entry current = entryOf(builder);
+        if (current != null) return put(new Entry(current.id, current.stamp, current.key, builder, handler));
+        return put(new Entry(nextId(), nextStamp++, null, builder, handler));
+    }
+
+    public int register(String key, ItemBuilder builder) {
+        return register(key, builder, null);
+    }
+
+    // items built before a restart still resolve through the key. Registering a key again replaces its entry and keeps
+    // its stamp, a builder registered under another key or without one moves to this key
+    public synchronized int register(String key, ItemBuilder builder, Consumer<InventoryClickEvent> handler) {
+        Entry previous = keys.get(key);
+        Entry current = entryOf(builder);
+        if (current != null && current != previous) unregister(current.id);
+
+        if (previous != null) return put(new Entry(previous.id, previous.stamp, key, builder, handler));
+        return put(new Entry(nextId(), nextStamp++, key, builder, handler));
+    }
+
+    private int nextId() {
+        return freeCount > 0 ? freeIds[--freeCount] : nextId++;
+    }
+
+    private int put(Entry entry) {
+        Entry[] entries = this.entries;
+        if (entry.id >= entries.length) entries = Arrays.copyOf(entries, entries.length * 2);
+        entries[entry.id] = entry;
+        this.entries = entries;
+        if (entry.key != null) keys.put(entry.key, entry);
+
+        ItemBuilder builder = entry.builder;
+        builder.setData(idKey, entry.id);
+        builder.setData(stampKey, entry.stamp);
+        if (entry.key != null) builder.setData(entryKey, entry.key);
+        return entry.id;
+    }
+
+    // the entry the builder is registered under in this registry, if any
+    private Entry entryOf(ItemBuilder builder) {
+        Integer id = builder.getData(idKey);
+        Entry entry = id != null ? get(id) : null;
+        return entry != null && entry.builder == builder ? entry : null;
+    }
+
+    public synchronized void unregister(int id) {
+        Entry[] entries = this.entries;
+        if (id <= 0 || id >= entries.length || entries[id] == null) return;
+
+        Entry entry = entries[id];
+        if (entry.key != null) keys.remove(entry.key, entry);
+        entries[id] = null;
+        this.entries = entries;
+
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = id;
+    }
+
+    public synchronized void unregister(String key) {
+        Entry entry = keys.get(key);
+        if (entry != null) unregister(entry.id);
+    }
+
+    // lookups
+    public Entry get(int id) {
+        Entry[] entries = this.entries;
+        return id > 0 && id < entries.length ? entries[id] : null;
+    }
+
+    public Entry get(String key) {
+        return keys.get(key);
+    }
+
+    public Entry resolve(ItemStack itemStack) {
+        if (itemStack == null || !itemStack.hasItemMeta()) return null;
+        ItemMetrics.recordMetaCopies(1);
+        ItemMeta meta = itemStack.getItemMeta();
+
+        // the id is only a shortcut, it may point to another entry by now, which then has another stamp
+        Integer id = idKey.get(meta);
+        if (id != null) {
+            Entry entry = get(id);
+            Long stamp = entry != null ? stampKey.get(meta) : null;
+            if (stamp != null && stamp == entry.stamp) return entry;
+        }
+
+        String key = entryKey.get(meta);
+        return key != null ? keys.get(key) : null;
+    }
+
+    public ItemBuilder getBuilder(ItemStack itemStack) {
+        Entry entry = resolve(itemStack);
+        return entry != null ? entry.builder : null;
+    }
+
+    // runs the handler of the clicked item, returns false if the item is not registered or has no handler
+    public boolean handle(InventoryClickEvent event) {
+        Entry entry = resolve(event.getCurrentItem());
+        if (entry == null || entry.handler == null) return false;
+        entry.handler.accept(event);
+        return true;
+    }
+
+    public DataKey<Integer, Integer> getIdKey() {
+        return idKey;
+    }
+
+    public DataKey<Long, Long> getStampKey() {
+        return stampKey;
+    }
+
+    public DataKey<String, String> getEntryKey() {
+        return entryKey;
+    }
+
+    public static final class Entry {
+
+        private final int id;
+        private final long stamp;
+        private final String key;
+        private final ItemBuilder builder;
+        private final Consumer<InventoryClickEvent> handler;
+
+        private Entry(int id, long stamp, String key, ItemBuilder builder, Consumer<InventoryClickEvent> handler) {
+            this.id = id;
+            this.stamp = stamp;
+            this.key = key;
+            this.builder = builder;
+            this.handler = handler;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        // null for builders registered without a key
+        public String getKey() {
+            return key;
+        }
+
+        public ItemBuilder getBuilder() {
+            return builder;
+        }
+
+        public Consumer<InventoryClickEvent> getHandler() {
+            return handler;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.List;
+
+public final class ItemTemplate {
+
+    private final ItemStack itemStack;
+
+    ItemTemplate(ItemStack itemStack) {
+        this.itemStack = itemStack;
+    }
+
+    public ItemStack toItemStack() {
+        ItemMetrics.recordMetaCopies(1);
+        return itemStack.clone();
+    }
+
+    // derivations
+    public ItemTemplate withAmount(int amount) {
+        ItemStack itemStack = this.itemStack.clone();
+        ItemMetrics.recordMetaCopies(1);
+        itemStack.setAmount(amount);
+        return new ItemTemplate(itemStack);
+    }
+
+    public ItemTemplate withName(String name) {
+        ItemMeta meta = ItemMetrics.recordMetaCopy(itemStack.getItemMeta());
+        assert meta != null;
+        meta.setDisplayName(name);
+        return withMeta(meta);
+    }
+
+    public ItemTemplate withLore(List<String> lore) {
+        ItemMeta meta = ItemMetrics.recordMetaCopy(itemStack.getItemMeta());
+        assert meta != null;
+        meta.setLore(lore);
+        return withMeta(meta);
+    }
+
+    private ItemTemplate withMeta(ItemMeta meta) {
+        ItemStack itemStack = new ItemStack(this.itemStack.getType(), this.itemStack.getAmount());
+        itemStack.setItemMeta(meta);
+        ItemMetrics.recordMetaCopies(1);
+        return new ItemTemplate(itemStack);
+    }
+
+    // getters
+    public int getAmount() {
+        return itemStack.getAmount();
+    }
+
+    public String getName() {
+        ItemMeta meta = ItemMetrics.recordMetaCopy(itemStack.getItemMeta());
+        return meta != null ? meta.getDisplayName() : null;
+    }
+}
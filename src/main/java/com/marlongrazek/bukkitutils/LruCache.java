@@ -0,0 +1,74 @@
+package com.marlongrazek.bukkitutils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+final class LruCache<K, V> {
+
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+    private final LinkedHashMap<K, Node<V>> entries;
+
+    LruCache(int maximumSize) {
+        this(maximumSize, 0);
+    }
+
+    // entries older than expireAfterWriteNanos are dropped on access, 0 keeps them until evicted
+    LruCache(int maximumSize, long expireAfterWriteNanos) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Node<V>> eldest) {
+                return size() > LruCache.this.maximumSize;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        Node<V> entry = entries.get(key);
+        if (entry == null) return null;
+
+        if (expireAfterWriteNanos > 0 && System.nanoTime() - entry.written > expireAfterWriteNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    synchronized void put(K key, V value) {
+        entries.put(key, new Node<>(value, System.nanoTime()));
+    }
+
+    synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    // only removes the entry while it still holds the value, e.g. when a failed load must not drop a newer one
+    synchronized boolean remove(K key, V value) {
+        Node<V> entry = entries.get(key);
+        if (entry == null || !Objects.equals(entry.value, value)) return false;
+        entries.remove(key);
+        return true;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Node<V> {
+
+        private final V value;
+        private final long written;
+
+        private Node(V value, long written) {
+            this.value = value;
+            this.written = written;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+public final class PagedMenu<T> {
+
+    private static final ItemMetrics.CacheStats STATS = ItemMetrics.getCache("menu-pages");
+
+    // only the rows of a requested page are fetched, so the source can be backed by a database
+    public interface DataSource<T> {
+
+        int size();
+
+        List<T> get(int fromIndex, int toIndex);
+
+        static <T> DataSource<T> of(List<T> list) {
+            return new DataSource<>() {
+                @Override
+                public int size() {
+                    return list.size();
+                }
+
+                @Override
+                public List<T> get(int fromIndex, int toIndex) {
+                    return list.subList(fromIndex, toIndex);
+                }
+            };
+        }
+    }
+
+    private final DataSource<T> source;
+    private final Function<? super T, ? extends ItemBuilder> mapper;
+    private final int pageSize;
+    private final Executor worker;
+    private final Executor mainThread;
+    private final LruCache<Integer, CompletableFuture<ItemStack[]>> pages;
+
+    public PagedMenu(DataSource<T> source, Function<? super T, ? extends ItemBuilder> mapper, int pageSize, Executor mainThread) {
+        this(source, mapper, pageSize, 5, ForkJoinPool.commonPool(), mainThread);
+    }
+
+    public PagedMenu(DataSource<T> source, Function<? super T, ? extends ItemBuilder> mapper, int pageSize, int cachedPages,
+                     Executor worker, Executor mainThread) {
+        if (pageSize < 1) throw new IllegalArgumentException("Page size must be at least 1");
+        this.source = source;
+        this.mapper = mapper;
+        this.pageSize = pageSize;
+        this.worker = worker;
+        this.mainThread = mainThread;
+        this.pages = new LruCache<>(Math.max(1, cachedPages));
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPageCount() {
+        return Math.max(1, (source.size() + pageSize - 1) / pageSize);
+    }
+
+    // rows are mapped to builders on the worker, the items are built on the main thread
+    public CompletableFuture<ItemStack[]> getPage(int page) {
+        // the size may be a database query, so it is only asked once per call
+        int pageCount = getPageCount();
+        CompletableFuture<ItemStack[]> items = load(page, pageCount);
+        if (page > 0) load(page - 1, pageCount);
+        if (page < pageCount - 1) load(page + 1, pageCount);
+        return items;
+    }
+
+    // fills the first slots of the inventory with the page and clears the remaining page slots
+    public CompletableFuture<Void> show(int page, Inventory inventory) {
+        return show(page, inventory, 0);
+    }
+
+    public CompletableFuture<Void> show(int page, Inventory inventory, int firstSlot) {
+        return getPage(page).thenAcceptAsync(items -> {
+            for (int i = 0; i < pageSize; i++) inventory.setItem(firstSlot + i, i < items.length ? items[i] : null);
+        }, mainThread);
+    }
+
+    // drops all built pages, e.g. after the data source changed
+    public void refresh() {
+        pages.clear();
+    }
+
+    private CompletableFuture<ItemStack[]> load(int page, int pageCount) {
+        if (page < 0 || page >= pageCount) throw new IndexOutOfBoundsException("Page " + page + " of " + pageCount);
+
+        CompletableFuture<ItemStack[]> items = pages.get(page);
+        if (items != null) {
+            STATS.hit();
+            return items;
+        }
+        STATS.miss();
+
+        CompletableFuture<ItemStack[]> loading = CompletableFuture.supplyAsync(() -> builders(page), worker)
+                .thenApplyAsync(ItemBuilder::buildAll, mainThread);
+        pages.put(page, loading);
+        // a refresh may already have replaced the failed page with a new load
+        loading.whenComplete((result, exception) -> {
+            if (exception != null) pages.remove(page, loading);
+        });
+        return loading;
+    }
+
+    private List<ItemBuilder> builders(int page) {
+        int size = source.size();
+        int fromIndex = Math.min(page * pageSize, size);
+        int toIndex = Math.min(fromIndex + pageSize, size);
+
+        List<T> rows = source.get(fromIndex, toIndex);
+        List<ItemBuilder> builders = new ArrayList<>(rows.size());
+        for (T row : rows) builders.add(mapper.apply(row));
+        return builders;
+    }
+}
@@ -0,0 +1,118 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.profile.PlayerProfile;
+import org.bukkit.profile.PlayerTextures;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class SkullTextures {
+
+    private static final Pattern SKIN_URL = Pattern.compile("\"url\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static volatile Resolver resolver = uuid -> Bukkit.createPlayerProfile(uuid).update();
+    private static volatile LruCache<UUID, PlayerProfile> cache = new LruCache<>(512, TimeUnit.MINUTES.toNanos(10));
+    private static final Map<UUID, CompletableFuture<PlayerProfile>> pending = new ConcurrentHashMap<>();
+    private static final ItemMetrics.CacheStats stats = ItemMetrics.getCache("skull-textures");
+
+    // profiles built from texture values, the same few heads are used for every menu that shows them
+    private static final LruCache<String, PlayerProfile> textureProfiles = new LruCache<>(256);
+    private static final ItemMetrics.CacheStats textureStats = ItemMetrics.getCache("skull-texture-profiles");
+
+    private SkullTextures() {
+    }
+
+    @FunctionalInterface
+    public interface Resolver {
+        CompletableFuture<PlayerProfile> resolve(UUID uuid);
+    }
+
+    public static void setResolver(Resolver resolver) {
+        SkullTextures.resolver = resolver;
+    }
+
+    public static void setCache(int maximumSize, long expireAfterWrite, TimeUnit unit) {
+        SkullTextures.cache = new LruCache<>(maximumSize, unit.toNanos(expireAfterWrite));
+    }
+
+    // resolution
+    public static CompletableFuture<PlayerProfile> resolve(UUID uuid) {
+
+        PlayerProfile cached = getCached(uuid);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        // concurrent requests for the same player share one lookup
+        CompletableFuture<PlayerProfile> future = pending.computeIfAbsent(uuid, key -> resolver.resolve(key));
+        return future.whenComplete((profile, throwable) -> {
+            if (profile != null) cache.put(uuid, profile);
+            pending.remove(uuid, future);
+        });
+    }
+
+    public static PlayerProfile getCached(UUID uuid) {
+        PlayerProfile profile = cache.get(uuid);
+        if (profile != null) stats.hit();
+        else stats.miss();
+        return profile;
+    }
+
+    // for builds, which only use a profile if one is there, so their lookups are left out of the stats
+    static PlayerProfile peek(UUID uuid) {
+        return cache.get(uuid);
+    }
+
+    public static void invalidate(UUID uuid) {
+        cache.remove(uuid);
+    }
+
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    // base64 encoded texture properties as found in player profiles
+    public static PlayerProfile fromTexture(String texture) {
+        return createTextured(texture);
+    }
+
+    // shared by every build of the texture, so it must not be changed. Skull metas copy the profile they are given
+    static PlayerProfile texturedProfile(String texture) {
+        PlayerProfile profile = textureProfiles.get(texture);
+        if (profile != null) {
+            textureStats.hit();
+            return profile;
+        }
+        textureStats.miss();
+
+        profile = createTextured(texture);
+        textureProfiles.put(texture, profile);
+        return profile;
+    }
+
+    private static PlayerProfile createTextured(String texture) {
+
+        String json = new String(Base64.getDecoder().decode(texture), StandardCharsets.UTF_8);
+        Matcher matcher = SKIN_URL.matcher(json);
+        if (!matcher.find()) throw new IllegalArgumentException("Texture contains no skin url");
+
+        PlayerProfile profile = Bukkit.createPlayerProfile(UUID.nameUUIDFromBytes(texture.getBytes(StandardCharsets.UTF_8)));
+        PlayerTextures textures = profile.getTextures();
+        try {
+            textures.setSkin(new URL(matcher.group(1)));
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Texture contains an invalid skin url", e);
+        }
+        profile.setTextures(textures);
+
+        return profile;
+    }
+}
@@ -0,0 +1,110 @@
+package com.marlongrazek.bukkitutils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public final class TextTemplate {
+
+    // literals[i] is written before placeholders[i], the last literal closes the text
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int length;
+
+    private TextTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+
+        int length = 0;
+        for (String literal : literals) length += literal.length();
+        this.length = length;
+    }
+
+    public static TextTemplate compile(String text) {
+
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int start = 0;
+        int open = text.indexOf('{');
+
+        while (open != -1) {
+            int close = text.indexOf('}', open + 1);
+            if (close == -1) break;
+
+            literals.add(translate(text.substring(start, open)));
+            placeholders.add(text.substring(open + 1, close));
+
+            start = close + 1;
+            open = text.indexOf('{', start);
+        }
+        literals.add(translate(text.substring(start)));
+
+        return new TextTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    public static List<TextTemplate> compile(List<String> lines) {
+        List<TextTemplate> templates = new ArrayList<>(lines.size());
+        for (String line : lines) templates.add(compile(line));
+        return templates;
+    }
+
+    private static String translate(String literal) {
+        return ColorCodes.translate(literal);
+    }
+
+    // rendering
+    public String render(Function<String, ?> resolver) {
+        if (placeholders.length == 0) return literals[0];
+
+        String[] values = resolve(resolver);
+        StringBuilder builder = new StringBuilder(length + length(values));
+        append(builder, values);
+        return builder.toString();
+    }
+
+    public void renderTo(StringBuilder builder, Function<String, ?> resolver) {
+        String[] values = resolve(resolver);
+        builder.ensureCapacity(builder.length() + length + length(values));
+        append(builder, values);
+    }
+
+    // values are resolved before anything is appended, so resolvers may render other templates. That nesting is
+    // why the values array is allocated per call, a shared buffer would need a per-thread stack of them, and the
+    // thread local lookup costs about as much as the short-lived array (see ItemBenchmark.renderTemplate and replaceChain)
+    private String[] resolve(Function<String, ?> resolver) {
+        String[] values = new String[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            // unresolved placeholders are kept as written
+            Object value = resolver.apply(placeholders[i]);
+            values[i] = value != null ? value.toString() : '{' + placeholders[i] + '}';
+        }
+        return values;
+    }
+
+    private static int length(String[] values) {
+        int length = 0;
+        for (String value : values) length += value.length();
+        return length;
+    }
+
+    private void append(StringBuilder builder, String[] values) {
+        for (int i = 0; i < values.length; i++) builder.append(literals[i]).append(values[i]);
+        builder.append(literals[values.length]);
+    }
+
+    public static List<String> render(List<TextTemplate> templates, Function<String, ?> resolver) {
+        List<String> lines = new ArrayList<>(templates.size());
+        for (TextTemplate template : templates) lines.add(template.render(resolver));
+        return lines;
+    }
+
+    // getters
+    public boolean hasPlaceholders() {
+        return placeholders.length != 0;
+    }
+
+    public List<String> getPlaceholders() {
+        return List.of(placeholders);
+    }
+}
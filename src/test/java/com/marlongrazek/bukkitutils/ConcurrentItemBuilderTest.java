@@ -0,0 +1,120 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentItemBuilderTest {
+
+    private static final int THREADS = 4;
+    private static final int UPDATES = 500;
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    @Test
+    void concurrentUpdatesAreNeverLost() throws Exception {
+        ConcurrentItemBuilder<ItemBuilder> builder = new ConcurrentItemBuilder<>(new ItemBuilder(Material.STONE));
+        Enchantment[] enchantments = {Enchantment.DURABILITY, Enchantment.MENDING, Enchantment.DAMAGE_ALL, Enchantment.DIG_SPEED};
+
+        run(thread -> {
+            Enchantment enchantment = enchantments[thread];
+            for (int i = 0; i < UPDATES; i++) {
+                builder.addLoreLines(thread + ":" + i);
+                builder.update(item -> item.addEnchantment(enchantment, item.getEnchantments().getOrDefault(enchantment, 0) + 1));
+                builder.update(item -> item.setAmount(item.getAmount() + 1));
+            }
+        });
+
+        ItemBuilder result = builder.get();
+        assertEquals(1 + THREADS * UPDATES, result.getAmount());
+
+        Set<String> lines = new HashSet<>(result.getLore());
+        assertEquals(THREADS * UPDATES, result.getLore().size());
+        for (int thread = 0; thread < THREADS; thread++) {
+            assertEquals(UPDATES, (int) result.getEnchantments().get(enchantments[thread]));
+            for (int i = 0; i < UPDATES; i++) assertTrue(lines.contains(thread + ":" + i), "line " + thread + ":" + i);
+        }
+    }
+
+    @Test
+    void buildsSeeCompleteVersions() throws Exception {
+        ConcurrentItemBuilder<ItemBuilder> builder = new ConcurrentItemBuilder<>(new ItemBuilder(Material.STONE));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+
+        // readers build while a writer keeps the amount and the lore length equal
+        Thread[] readers = new Thread[THREADS - 1];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                while (writing.get()) {
+                    ItemStack itemStack = builder.toItemStack();
+                    List<String> lore = itemStack.getItemMeta().getLore();
+                    int lines = lore != null ? lore.size() : 0;
+                    if (lines + 1 != itemStack.getAmount()) errors.add(lines + " lines for amount " + itemStack.getAmount());
+                }
+            });
+            readers[i].start();
+        }
+
+        for (int i = 0; i < UPDATES; i++) {
+            int line = i;
+            builder.update(item -> {
+                item.addLoreLines("line " + line);
+                item.setAmount(item.getAmount() + 1);
+            });
+        }
+        writing.set(false);
+        for (Thread reader : readers) reader.join();
+
+        assertTrue(errors.isEmpty(), String.valueOf(errors.peek()));
+    }
+
+    @Test
+    void copiesDoNotChangeThePublishedVersion() throws Exception {
+        ConcurrentItemBuilder<ItemBuilder> builder = new ConcurrentItemBuilder<>(new ItemBuilder("Shop", Material.STONE));
+
+        run(thread -> {
+            for (int i = 0; i < UPDATES; i++) builder.get().setName("thread " + thread);
+        });
+
+        assertEquals("Shop", builder.get().getName());
+        assertEquals("Shop", builder.toItemStack().getItemMeta().getDisplayName());
+    }
+
+    private static void run(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CyclicBarrier start = new CyclicBarrier(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int index = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
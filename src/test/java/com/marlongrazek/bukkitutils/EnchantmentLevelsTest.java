@@ -0,0 +1,98 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.enchantments.Enchantment;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnchantmentLevelsTest {
+
+    @Test
+    void putReplacesExistingLevels() {
+        EnchantmentLevels levels = new EnchantmentLevels();
+        levels.put(Enchantment.DURABILITY, 1);
+        levels.put(Enchantment.DURABILITY, 3);
+
+        assertEquals(1, levels.size());
+        assertEquals(3, levels.get(Enchantment.DURABILITY));
+        assertEquals(0, levels.get(Enchantment.MENDING));
+    }
+
+    @Test
+    void growsAndRemovesInOrder() {
+        Enchantment[] enchantments = {Enchantment.DURABILITY, Enchantment.MENDING, Enchantment.DAMAGE_ALL,
+                Enchantment.DIG_SPEED, Enchantment.LOOT_BONUS_BLOCKS};
+
+        EnchantmentLevels levels = new EnchantmentLevels();
+        for (int i = 0; i < enchantments.length; i++) levels.put(enchantments[i], i + 1);
+
+        assertTrue(levels.remove(Enchantment.MENDING));
+        assertFalse(levels.remove(Enchantment.MENDING));
+
+        List<Enchantment> order = new ArrayList<>();
+        levels.forEach((enchantment, level) -> order.add(enchantment));
+        assertEquals(List.of(Enchantment.DURABILITY, Enchantment.DAMAGE_ALL, Enchantment.DIG_SPEED,
+                Enchantment.LOOT_BONUS_BLOCKS), order);
+        assertEquals(5, levels.get(Enchantment.LOOT_BONUS_BLOCKS));
+
+        levels.clear();
+        assertTrue(levels.isEmpty());
+        assertFalse(levels.contains(Enchantment.DURABILITY));
+    }
+
+    @Test
+    void equalityIgnoresOrder() {
+        EnchantmentLevels first = new EnchantmentLevels(Map.of(Enchantment.DURABILITY, 3, Enchantment.MENDING, 1));
+        EnchantmentLevels second = new EnchantmentLevels();
+        second.put(Enchantment.MENDING, 1);
+        second.put(Enchantment.DURABILITY, 3);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        second.put(Enchantment.MENDING, 2);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        EnchantmentLevels levels = new EnchantmentLevels(Map.of(Enchantment.DURABILITY, 3));
+        EnchantmentLevels copy = levels.copy();
+        copy.put(Enchantment.MENDING, 1);
+
+        assertEquals(1, levels.size());
+        assertEquals(Map.of(Enchantment.DURABILITY, 3, Enchantment.MENDING, 1), copy.toMap());
+    }
+
+    @Test
+    void mapViewWritesThroughAndReportsChanges() {
+        EnchantmentLevels levels = new EnchantmentLevels(Map.of(Enchantment.DURABILITY, 3));
+        AtomicInteger changes = new AtomicInteger();
+        Map<Enchantment, Integer> view = levels.asMap(changes::incrementAndGet);
+
+        assertEquals(3, (int) view.get(Enchantment.DURABILITY));
+        assertNull(view.get(Enchantment.MENDING));
+        assertEquals(0, changes.get());
+
+        assertNull(view.put(Enchantment.MENDING, 1));
+        assertEquals(3, (int) view.remove(Enchantment.DURABILITY));
+        assertNull(view.remove(Enchantment.DURABILITY));
+        view.entrySet().iterator().next().setValue(2);
+
+        assertEquals(3, changes.get());
+        assertEquals(Map.of(Enchantment.MENDING, 2), levels.toMap());
+        assertEquals(Map.of(Enchantment.MENDING, 2), view);
+
+        Iterator<Map.Entry<Enchantment, Integer>> iterator = view.entrySet().iterator();
+        iterator.next();
+        iterator.remove();
+        assertTrue(levels.isEmpty());
+        assertEquals(4, changes.get());
+    }
+}
@@ -0,0 +1,55 @@
+package com.marlongrazek.bukkitutils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExperienceTableTest {
+
+    @Test
+    void formulasMatchTheCurveAtTheBoundaries() {
+        long total = 0;
+        for (int level = 0; level <= 40; level++) {
+            assertEquals(total, ExperienceTable.calculateExperienceAtLevel(level), "level " + level);
+            total += ExperienceTable.getExperienceToNextLevel(level);
+        }
+        assertEquals(352, ExperienceTable.calculateExperienceAtLevel(16));
+        assertEquals(1507, ExperienceTable.calculateExperienceAtLevel(31));
+    }
+
+    @Test
+    void levelsRoundTripThroughTheTable() {
+        ExperienceTable table = new ExperienceTable(ExperienceTable.MAX_LEVEL);
+        for (int level = 1; level <= ExperienceTable.MAX_LEVEL; level++) {
+            int experience = (int) table.getExperienceAtLevel(level);
+            assertEquals(level, table.getLevelAtExperience(experience), "level " + level);
+            assertEquals(level - 1, table.getLevelAtExperience(experience - 1), "below level " + level);
+        }
+    }
+
+    @Test
+    void levelsRoundTripBeyondTheTable() {
+        // levels above the table fall back to the formulas
+        ExperienceTable table = new ExperienceTable(10);
+        for (int level : new int[]{15, 16, 17, 30, 31, 32, 1000, ExperienceTable.MAX_LEVEL}) {
+            int experience = (int) table.getExperienceAtLevel(level);
+            assertEquals(level, table.getLevelAtExperience(experience), "level " + level);
+            assertEquals(level - 1, table.getLevelAtExperience(experience - 1), "below level " + level);
+        }
+    }
+
+    @Test
+    void maxLevelIsTheLastOneThatFitsIntoAnInt() {
+        assertTrue(ExperienceTable.calculateExperienceAtLevel(ExperienceTable.MAX_LEVEL) <= Integer.MAX_VALUE);
+        assertTrue(ExperienceTable.calculateExperienceAtLevel(ExperienceTable.MAX_LEVEL + 1) > Integer.MAX_VALUE);
+
+        assertEquals(ExperienceTable.MAX_LEVEL, new ExperienceTable(ExperienceTable.MAX_LEVEL).getLevelAtExperience(Integer.MAX_VALUE));
+        assertEquals(ExperienceTable.MAX_LEVEL, new ExperienceTable(100).getLevelAtExperience(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void rejectsLevelsThatDoNotFit() {
+        assertThrows(IllegalArgumentException.class, () -> new ExperienceTable(ExperienceTable.MAX_LEVEL + 1));
+        assertThrows(IllegalArgumentException.class, () -> new ExperienceTable(-1));
+    }
+}
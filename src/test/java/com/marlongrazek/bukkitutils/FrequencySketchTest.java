@@ -0,0 +1,48 @@
+package com.marlongrazek.bukkitutils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+    @Test
+    void countsUpToFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        assertEquals(0, sketch.frequency("item"));
+
+        for (int i = 1; i <= 20; i++) {
+            sketch.increment("item");
+            assertEquals(Math.min(i, 15), sketch.frequency("item"));
+        }
+    }
+
+    @Test
+    void neverUnderestimates() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int key = 0; key < 100; key++)
+            for (int i = 0; i < key % 8; i++) sketch.increment(key);
+
+        for (int key = 0; key < 100; key++) assertTrue(sketch.frequency(key) >= key % 8, "key " + key);
+    }
+
+    @Test
+    void oldPopularityFades() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 15; i++) sketch.increment("hot");
+
+        // once enough other items were seen every counter is halved, even if all of them are saturated
+        int key = 0;
+        while (sketch.frequency("hot") == 15 && key < 1_000_000) sketch.increment(key++);
+        assertEquals(7, sketch.frequency("hot"));
+    }
+
+    @Test
+    void growingKeepsTheHistory() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 5; i++) sketch.increment("item");
+
+        sketch.ensureCapacity(4096);
+        assertTrue(sketch.frequency("item") >= 5);
+    }
+}
@@ -0,0 +1,338 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Color;
+import org.bukkit.DyeColor;
+import org.bukkit.FireworkEffect;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.block.banner.PatternType;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.potion.PotionData;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.potion.PotionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+ * Item stacks are built against TestServer, whose metas are plain maps, so the build numbers show the
+ * builder's own work rather than the server's NBT handling. Run with -prof gc to see the bytes allocated
+ * per build: mvn -Pbenchmark test-compile exec:exec -Djmh.args="ItemBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemBenchmark {
+
+    private final ExperienceTable experienceTable = new ExperienceTable(ExperienceTable.MAX_LEVEL);
+    private final TextTemplate template = TextTemplate.compile("&7{player} has &e{coins} &7coins");
+    private final Function<String, ?> resolver = Map.of("player", "Steve", "coins", 42)::get;
+    private final String text = ColorCodes.translate("&7{player} has &e{coins} &7coins");
+    private final FrequencySketch sketch = new FrequencySketch(4096);
+
+    private ItemBuilder builder;
+    private ItemBuilder loreHeavy;
+    private ItemStack imported;
+    private byte[] encoded;
+    private int experience;
+    private int key;
+
+    @Setup
+    public void setup() {
+        TestServer.install();
+
+        builder = new ItemBuilder("Shop", Material.STONE);
+        builder.setLore(List.of("first line", "second line", "first line"));
+        builder.addItemFlag(ItemFlag.HIDE_ENCHANTS);
+        encoded = ItemCodec.encode(builder);
+
+        // menu entries with a long description
+        List<String> lore = new ArrayList<>();
+        for (int i = 0; i < 40; i++) lore.add("\u00A77Line " + i + " of the item description");
+        loreHeavy = new ItemBuilder("\u00A76Details", Material.PAPER);
+        loreHeavy.setLore(lore);
+        loreHeavy.addEnchantment(Enchantment.DURABILITY, 3);
+        loreHeavy.addItemFlag(ItemFlag.HIDE_ENCHANTS);
+
+        imported = loreHeavy.toItemStack();
+    }
+
+    // experience
+    @Benchmark
+    public int levelFromTable() {
+        experience = (experience + 7919) & Integer.MAX_VALUE;
+        return experienceTable.getLevelAtExperience(experience);
+    }
+
+    @Benchmark
+    public int levelFromFormula() {
+        experience = (experience + 7919) & Integer.MAX_VALUE;
+        return ExperienceTable.calculateLevelAtExperience(experience);
+    }
+
+    // the baseline for both, the curve walked one level at a time the way the player's experience bar fills up
+    @Benchmark
+    public int levelFromLoop() {
+        experience = (experience + 7919) & Integer.MAX_VALUE;
+        int remaining = experience;
+        int level = 0;
+        while (remaining >= ExperienceTable.getExperienceToNextLevel(level)) {
+            remaining -= ExperienceTable.getExperienceToNextLevel(level);
+            level++;
+        }
+        return level;
+    }
+
+    // text and codec
+    @Benchmark
+    public String renderTemplate() {
+        return template.render(resolver);
+    }
+
+    // what the template replaces, one scan and one copy of the text per placeholder
+    @Benchmark
+    public String replaceChain() {
+        return text.replace("{player}", "Steve").replace("{coins}", String.valueOf(42));
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return ItemCodec.encode(builder);
+    }
+
+    @Benchmark
+    public ItemBuilder decode() {
+        return ItemCodec.decode(encoded);
+    }
+
+    // the same builder as a ConfigurationSerializable in a YAML file, the way kits are usually stored
+    @Benchmark
+    public String yamlEncode(Yaml yaml) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("item", new YamlItem(builder));
+        return config.saveToString();
+    }
+
+    @Benchmark
+    public ItemBuilder yamlDecode(Yaml yaml) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(yaml.encoded);
+        return ((YamlItem) config.get("item")).toBuilder();
+    }
+
+    @Benchmark
+    public int hashAfterChange() {
+        builder.setAmount((builder.getAmount() & 63) + 1);
+        return builder.hashCode();
+    }
+
+    @Benchmark
+    public int sketch() {
+        sketch.increment(key++ & 8191);
+        return sketch.frequency(key & 8191);
+    }
+
+    // building
+    @Benchmark
+    public ItemStack toItemStack() {
+        return builder.toItemStack();
+    }
+
+    @Benchmark
+    public ItemStack loreHeavy() {
+        return loreHeavy.toItemStack();
+    }
+
+    // the build before single-pass meta application, for comparison: two meta round trips and a separate enchantment
+    // write. With -prof gc, gc.alloc.rate.norm of this and loreHeavy shows the bytes the extra copies cost per build
+    @Benchmark
+    public ItemStack loreHeavyTwoPass() {
+        ItemStack itemStack = new ItemStack(loreHeavy.getMaterial(), loreHeavy.getAmount());
+        ItemMeta meta = itemStack.getItemMeta();
+        itemStack.setItemMeta(meta);
+
+        meta = itemStack.getItemMeta();
+        meta.setDisplayName(loreHeavy.getName());
+        meta.setLore(loreHeavy.getLore());
+        for (ItemFlag flag : loreHeavy.getItemFlags()) meta.addItemFlags(flag);
+        itemStack.setItemMeta(meta);
+
+        itemStack.addUnsafeEnchantments(loreHeavy.getEnchantments());
+        return itemStack;
+    }
+
+    // an untouched import only clones the meta it was created from
+    @Benchmark
+    public ItemStack importRoundTrip() {
+        return new ItemBuilder(imported).toItemStack();
+    }
+
+    @Benchmark
+    public ItemStack importAndRename() {
+        ItemBuilder builder = new ItemBuilder(imported);
+        builder.setName("\u00A76Renamed");
+        return builder.toItemStack();
+    }
+
+    @Benchmark
+    public ItemStack subtype(Subtypes subtypes) {
+        return subtypes.builder.toItemStack();
+    }
+
+    @State(Scope.Thread)
+    public static class Yaml {
+
+        private String encoded;
+
+        @Setup
+        public void setup(ItemBenchmark benchmark) {
+            ConfigurationSerialization.registerClass(YamlItem.class, "BenchmarkItem");
+            YamlConfiguration config = new YamlConfiguration();
+            config.set("item", new YamlItem(benchmark.builder));
+            encoded = config.saveToString();
+
+            // the size comparison, printed once per run
+            System.out.println("Encoded size: " + benchmark.encoded.length + " bytes binary, "
+                    + encoded.getBytes(StandardCharsets.UTF_8).length + " bytes YAML");
+        }
+    }
+
+    // the keys follow ItemStack.serialize and the server's item meta, so the YAML matches what Bukkit writes
+    public static final class YamlItem implements ConfigurationSerializable {
+
+        private final ItemBuilder builder;
+
+        YamlItem(ItemBuilder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public Map<String, Object> serialize() {
+            Map<String, Object> meta = new LinkedHashMap<>();
+            meta.put("meta-type", "UNSPECIFIC");
+            if (builder.getName() != null) meta.put("display-name", builder.getName());
+            if (!builder.getLore().isEmpty()) meta.put("lore", new ArrayList<>(builder.getLore()));
+            if (!builder.getEnchantments().isEmpty()) {
+                Map<String, Object> enchants = new LinkedHashMap<>();
+                builder.getEnchantments().forEach((enchantment, level) -> enchants.put(enchantment.getKey().toString(), level));
+                meta.put("enchants", enchants);
+            }
+            if (!builder.getItemFlags().isEmpty()) {
+                List<String> flags = new ArrayList<>();
+                for (ItemFlag flag : builder.getItemFlags()) flags.add(flag.name());
+                meta.put("ItemFlags", flags);
+            }
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("v", 2865);
+            item.put("type", builder.getMaterial().name());
+            if (builder.getAmount() != 1) item.put("amount", builder.getAmount());
+            item.put("meta", meta);
+            return item;
+        }
+
+        @SuppressWarnings("unchecked")
+        public static YamlItem deserialize(Map<String, Object> item) {
+            ItemBuilder builder = new ItemBuilder(Material.getMaterial((String) item.get("type")));
+            builder.setAmount((int) item.getOrDefault("amount", 1));
+
+            Map<String, Object> meta = (Map<String, Object>) item.get("meta");
+            if (meta.containsKey("display-name")) builder.setName((String) meta.get("display-name"));
+            if (meta.containsKey("lore")) builder.setLore((List<String>) meta.get("lore"));
+            if (meta.containsKey("enchants")) ((Map<String, Integer>) meta.get("enchants")).forEach((key, level) ->
+                    builder.addEnchantment(Enchantment.getByKey(NamespacedKey.fromString(key)), level));
+            if (meta.containsKey("ItemFlags"))
+                for (String flag : (List<String>) meta.get("ItemFlags")) builder.addItemFlag(ItemFlag.valueOf(flag));
+            return new YamlItem(builder);
+        }
+
+        ItemBuilder toBuilder() {
+            return builder;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Subtypes {
+
+        @Param({"skull", "potion", "book", "leatherArmor", "firework", "banner", "enchantmentStorage"})
+        public String type;
+
+        private ItemBuilder builder;
+
+        @Setup
+        public void setup() {
+            TestServer.install();
+            builder = create(type);
+            builder.setLore(List.of("first line", "second line"));
+        }
+
+        private static ItemBuilder create(String type) {
+            switch (type) {
+                case "skull": {
+                    ItemBuilder.Skull skull = new ItemBuilder.Skull("Head", Material.PLAYER_HEAD);
+                    skull.setOwningPlayer(Bukkit.getOfflinePlayer(UUID.nameUUIDFromBytes(new byte[]{1})));
+                    return skull;
+                }
+                case "potion": {
+                    ItemBuilder.Potion potion = new ItemBuilder.Potion("Potion", Material.POTION);
+                    potion.setBasePotionData(new PotionData(PotionType.SPEED, false, true));
+                    potion.addCustomEffect(new PotionEffect(PotionEffectType.REGENERATION, 200, 1), true);
+                    potion.setColor(Color.RED);
+                    return potion;
+                }
+                case "book": {
+                    ItemBuilder.Book book = new ItemBuilder.Book("Book", Material.WRITTEN_BOOK);
+                    book.setTitle("Rules");
+                    book.setAuthor("Server");
+                    for (int i = 0; i < 10; i++) book.addPage("Page " + i);
+                    return book;
+                }
+                case "leatherArmor": {
+                    ItemBuilder.LeatherArmor armor = new ItemBuilder.LeatherArmor("Armor", Material.LEATHER_CHESTPLATE);
+                    armor.setColor(Color.BLUE);
+                    return armor;
+                }
+                case "firework": {
+                    ItemBuilder.Firework firework = new ItemBuilder.Firework("Rocket", Material.FIREWORK_ROCKET);
+                    firework.setPower(2);
+                    firework.addEffect(FireworkEffect.builder().with(FireworkEffect.Type.BALL).withColor(Color.RED).build());
+                    return firework;
+                }
+                case "banner": {
+                    ItemBuilder.Banner banner = new ItemBuilder.Banner("Banner", Material.WHITE_BANNER);
+                    banner.addPattern(new Pattern(DyeColor.RED, PatternType.STRIPE_TOP));
+                    banner.addPattern(new Pattern(DyeColor.BLUE, PatternType.BORDER));
+                    return banner;
+                }
+                case "enchantmentStorage": {
+                    ItemBuilder.EnchantmentStorage book = new ItemBuilder.EnchantmentStorage("Tome", Material.ENCHANTED_BOOK);
+                    book.addStoredEnchant(Enchantment.DURABILITY, 3, true);
+                    book.addStoredEnchant(Enchantment.MENDING, 1, true);
+                    return book;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown builder type " + type);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemBuilderTest {
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    @Test
+    void namedBuildersWriteTheirName() {
+        ItemStack itemStack = new ItemBuilder("Shop", Material.STONE).toItemStack();
+
+        assertEquals(Material.STONE, itemStack.getType());
+        assertEquals("Shop", itemStack.getItemMeta().getDisplayName());
+    }
+
+    @Test
+    void buildsWriteEveryField() {
+        ItemBuilder builder = new ItemBuilder(Material.DIAMOND);
+        builder.setAmount(3);
+        builder.setLore(List.of("first", "second"));
+        builder.addEnchantment(Enchantment.DURABILITY, 2);
+        builder.addItemFlag(ItemFlag.HIDE_ENCHANTS);
+
+        ItemStack itemStack = builder.toItemStack();
+        ItemMeta meta = itemStack.getItemMeta();
+
+        assertEquals(3, itemStack.getAmount());
+        assertEquals(List.of("first", "second"), meta.getLore());
+        assertEquals(2, (int) meta.getEnchants().get(Enchantment.DURABILITY));
+        assertEquals(Set.of(ItemFlag.HIDE_ENCHANTS), meta.getItemFlags());
+    }
+
+    @Test
+    void untouchedImportsRebuildTheSameItem() {
+        ItemBuilder builder = new ItemBuilder("Shop", Material.STONE);
+        builder.setLore(List.of("first"));
+        ItemStack original = builder.toItemStack();
+
+        assertEquals(original, new ItemBuilder(original).toItemStack());
+    }
+
+    @Test
+    void importsKeepFieldsThatWereNotChanged() {
+        ItemBuilder builder = new ItemBuilder("Shop", Material.STONE);
+        builder.setLore(List.of("first"));
+
+        ItemBuilder imported = new ItemBuilder(builder.toItemStack());
+        imported.setName("Market");
+        ItemMeta meta = imported.toItemStack().getItemMeta();
+
+        assertEquals("Market", meta.getDisplayName());
+        assertEquals(List.of("first"), meta.getLore());
+    }
+
+    @Test
+    void listGettersWriteThrough() {
+        ItemBuilder builder = new ItemBuilder(new ItemBuilder("Shop", Material.STONE).toItemStack());
+        int hash = builder.hashCode();
+        int modCount = builder.getModCount();
+
+        builder.getLore().add("added");
+
+        assertEquals(modCount + 1, builder.getModCount());
+        assertNotEquals(hash, builder.hashCode());
+        assertEquals(List.of("added"), builder.toItemStack().getItemMeta().getLore());
+    }
+
+    @Test
+    void buildAllLeavesLaterSlotsAlone() {
+        Inventory inventory = TestServer.inventory(27);
+        ItemStack kept = new ItemStack(Material.DIAMOND);
+        inventory.setItem(5, kept);
+
+        ItemBuilder.buildAll(List.of(new ItemBuilder("Shop", Material.STONE), new ItemBuilder(Material.PAPER)), inventory);
+
+        assertEquals(Material.STONE, inventory.getItem(0).getType());
+        assertEquals(Material.PAPER, inventory.getItem(1).getType());
+        assertNull(inventory.getItem(2));
+        assertSame(kept, inventory.getItem(5));
+    }
+
+    @Test
+    void preparedBuildersAreCopiedAtTheHandOff() {
+        List<Runnable> mainThread = new ArrayList<>();
+        ItemBuilder builder = new ItemBuilder("Shop", Material.STONE);
+        Inventory inventory = TestServer.inventory(9);
+
+        CompletableFuture<ItemStack> item = ItemBuilder.prepare(() -> builder, Runnable::run, mainThread::add);
+        CompletableFuture<Void> filled = ItemBuilder.prepareAll(() -> List.of(builder), inventory, Runnable::run, mainThread::add);
+        builder.setName("Changed");
+        mainThread.forEach(Runnable::run);
+
+        assertEquals("Shop", item.join().getItemMeta().getDisplayName());
+        filled.join();
+        assertEquals("Shop", inventory.getItem(0).getItemMeta().getDisplayName());
+    }
+
+    @Test
+    void subtypesRejectOtherMetas() {
+        ItemStack stone = new ItemStack(Material.STONE);
+        assertThrows(IllegalArgumentException.class, () -> new ItemBuilder.Book(stone));
+    }
+
+    @Test
+    void subtypesWriteTheirFields() {
+        ItemBuilder.Book book = new ItemBuilder.Book("Rules", Material.WRITTEN_BOOK);
+        book.setTitle("Rules");
+        book.addPage("first page");
+
+        ItemBuilder.Book rebuilt = new ItemBuilder.Book(book.toItemStack());
+
+        assertEquals("Rules", rebuilt.getTitle());
+        assertEquals(List.of("first page"), rebuilt.getPages());
+    }
+}
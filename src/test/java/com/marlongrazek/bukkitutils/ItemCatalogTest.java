@@ -0,0 +1,100 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCatalogTest {
+
+    private Path file;
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    @BeforeEach
+    void createFile() throws IOException {
+        file = Files.createTempFile("items", ".catalog");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void writtenItemsReadBack() throws IOException {
+        ItemBuilder sword = new ItemBuilder("Sword", Material.DIAMOND_SWORD);
+        sword.setLore(List.of("first", "second"));
+        Map<String, ItemBuilder> items = new LinkedHashMap<>();
+        items.put("shop:sword", sword);
+        items.put("shop:paper", new ItemBuilder("Paper", Material.PAPER));
+        items.put("kit:stone", new ItemBuilder(Material.STONE));
+
+        ItemCatalog.write(file, items);
+        ItemCatalog catalog = ItemCatalog.open(file);
+
+        assertEquals(3, catalog.size());
+        assertEquals(sword, catalog.get("shop:sword"));
+        assertEquals(sword, catalog.get(new NamespacedKey("shop", "sword")));
+        assertEquals("Paper", catalog.getItemStack("shop:paper").getItemMeta().getDisplayName());
+        assertEquals(Material.STONE, catalog.get("kit:stone").getMaterial());
+    }
+
+    @Test
+    void nonAsciiKeysAreFound() throws IOException {
+        // bytes above 0x7F sort after ASCII only when compared unsigned
+        String[] keys = {"shop:apple", "shop:\u00E9p\u00E9e", "shop:zebra", "shop:\u00FCber", "shop:\u5263", "shop:a\u00E9"};
+        Map<String, ItemBuilder> items = new LinkedHashMap<>();
+        for (String key : keys) items.put(key, new ItemBuilder(key, Material.PAPER));
+
+        ItemCatalog.write(file, items);
+        ItemCatalog catalog = ItemCatalog.open(file);
+
+        for (String key : keys) {
+            assertTrue(catalog.contains(key), key);
+            assertEquals(key, catalog.get(key).getName());
+        }
+    }
+
+    @Test
+    void missingKeysReturnNull() throws IOException {
+        ItemCatalog.write(file, Map.of("shop:b", new ItemBuilder(Material.STONE), "shop:d", new ItemBuilder(Material.PAPER)));
+        ItemCatalog catalog = ItemCatalog.open(file);
+
+        for (String key : new String[]{"shop:a", "shop:c", "shop:e", "shop:", "shop:bb", "shop:\u00E9"}) {
+            assertFalse(catalog.contains(key), key);
+            assertNull(catalog.get(key), key);
+            assertNull(catalog.getItemStack(key), key);
+        }
+    }
+
+    @Test
+    void emptyCatalogsHaveNoItems() throws IOException {
+        ItemCatalog.write(file, Map.of());
+        ItemCatalog catalog = ItemCatalog.open(file);
+
+        assertEquals(0, catalog.size());
+        assertFalse(catalog.contains("shop:sword"));
+        assertNull(catalog.get("shop:sword"));
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Files.write(file, new byte[16]);
+        assertThrows(IOException.class, () -> ItemCatalog.open(file));
+    }
+}
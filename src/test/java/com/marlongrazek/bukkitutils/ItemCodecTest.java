@@ -0,0 +1,119 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemFlag;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCodecTest {
+
+    @Test
+    void varIntsRoundTrip() {
+        for (int amount : new int[]{0, 1, 127, 128, 16383, 16384, 2097151, 2097152, Integer.MAX_VALUE, -1, Integer.MIN_VALUE}) {
+            ItemBuilder builder = new ItemBuilder(Material.STONE);
+            builder.setAmount(amount);
+
+            assertEquals(amount, ItemCodec.decode(ItemCodec.encode(builder)).getAmount(), "amount " + amount);
+        }
+    }
+
+    @Test
+    void varIntsUseOneByteBelow128() {
+        ItemBuilder small = new ItemBuilder(Material.STONE);
+        small.setAmount(127);
+        ItemBuilder large = new ItemBuilder(Material.STONE);
+        large.setAmount(128);
+
+        assertEquals(ItemCodec.encode(small).length + 1, ItemCodec.encode(large).length);
+    }
+
+    @Test
+    void buildersRoundTrip() {
+        ItemBuilder builder = new ItemBuilder("\u00A7aShop", Material.STONE);
+        builder.setLore(List.of("first", "", "\u00FCml\u00E4ut \u2764"));
+        builder.addItemFlag(ItemFlag.HIDE_ENCHANTS);
+
+        ItemBuilder decoded = ItemCodec.decode(ItemCodec.encode(builder));
+        assertEquals(builder, decoded);
+        assertEquals("\u00A7aShop", decoded.getName());
+        assertEquals(builder.getLore(), decoded.getLore());
+        assertEquals(List.of(ItemFlag.HIDE_ENCHANTS), decoded.getItemFlags());
+    }
+
+    @Test
+    void nullStringsRoundTrip() {
+        ItemBuilder builder = new ItemBuilder(Material.STONE);
+        builder.setName(null);
+
+        assertNull(ItemCodec.decode(ItemCodec.encode(builder)).getName());
+    }
+
+    @Test
+    void repeatedStringsAreWrittenOnce() {
+        String line = "a rather long line of lore that repeats";
+
+        ItemBuilder once = new ItemBuilder(Material.STONE);
+        once.setLore(List.of(line));
+        ItemBuilder repeated = new ItemBuilder(Material.STONE);
+        repeated.setLore(Collections.nCopies(10, line));
+
+        // every repetition is a one byte reference into the string table
+        assertEquals(ItemCodec.encode(once).length + 9, ItemCodec.encode(repeated).length);
+        assertEquals(repeated.getLore(), ItemCodec.decode(ItemCodec.encode(repeated)).getLore());
+    }
+
+    @Test
+    void stringTableIsSharedAcrossRecords() throws IOException {
+        List<ItemBuilder> builders = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ItemBuilder builder = new ItemBuilder("item " + i % 150, Material.STONE);
+            builder.setLore(List.of("shared lore", "line " + i));
+            builders.add(builder);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ItemCodec.Writer writer = new ItemCodec.Writer(new DataOutputStream(bytes));
+        for (ItemBuilder builder : builders) writer.write(builder);
+        writer.finish();
+
+        // more than 128 strings, so later references need two bytes
+        ItemCodec.Reader reader = new ItemCodec.Reader(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (ItemBuilder builder : builders) assertEquals(builder, reader.read());
+        assertNull(reader.read());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void skullTexturesRoundTrip() {
+        ItemBuilder.Skull skull = new ItemBuilder.Skull(Material.PLAYER_HEAD);
+        skull.setTexture("eyJ0ZXh0dXJlcyI6e319");
+
+        ItemBuilder.Skull decoded = (ItemBuilder.Skull) ItemCodec.decode(ItemCodec.encode(skull));
+        assertEquals("eyJ0ZXh0dXJlcyI6e319", decoded.getTexture());
+        assertNull(decoded.getOwningPlayer());
+        assertNull(decoded.getOwnerProfile());
+        assertEquals(skull, decoded);
+    }
+
+    @Test
+    void rejectsForeignStreams() {
+        byte[] bytes = ItemCodec.encode(new ItemBuilder(Material.STONE));
+        bytes[0] ^= 1;
+
+        assertThrows(UncheckedIOException.class, () -> ItemCodec.decode(bytes));
+    }
+
+    @Test
+    void rejectsNewerVersions() {
+        byte[] bytes = ItemCodec.encode(new ItemBuilder(Material.STONE));
+        bytes[4] = (byte) (ItemCodec.VERSION + 1);
+
+        assertThrows(UncheckedIOException.class, () -> ItemCodec.decode(bytes));
+    }
+}
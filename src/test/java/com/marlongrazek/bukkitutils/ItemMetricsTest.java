@@ -0,0 +1,70 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemMetricsTest {
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    @BeforeEach
+    void enable() {
+        ItemMetrics.reset();
+        ItemMetrics.setEnabled(true);
+    }
+
+    @AfterEach
+    void disable() {
+        ItemMetrics.setEnabled(false);
+        ItemMetrics.reset();
+    }
+
+    @Test
+    void buildsCountTheCreatedAndTheCommittedMeta() {
+        new ItemBuilder("Shop", Material.STONE).toItemStack();
+        assertEquals(2, ItemMetrics.getMetaCopies());
+    }
+
+    @Test
+    void importsCountTheMetaTheyRead() {
+        ItemStack itemStack = new ItemBuilder("Shop", Material.STONE).toItemStack();
+        ItemMetrics.reset();
+
+        ItemBuilder.of(itemStack);
+        assertEquals(1, ItemMetrics.getMetaCopies());
+
+        new ItemBuilder(itemStack).toItemStack();
+        assertEquals(4, ItemMetrics.getMetaCopies());
+    }
+
+    @Test
+    void itemsWithoutMetaCountNothing() {
+        new ItemBuilder(Material.AIR).toItemStack();
+        ItemBuilder.fromContents(new ItemStack[]{null, new ItemStack(Material.AIR)}, false);
+        assertEquals(0, ItemMetrics.getMetaCopies());
+    }
+
+    @Test
+    void templatesCountEveryDerivation() {
+        ItemTemplate template = new ItemBuilder("Shop", Material.STONE).freeze();
+        ItemMetrics.reset();
+
+        template.withName("Market");
+        assertEquals(2, ItemMetrics.getMetaCopies());
+
+        template.withLore(List.of("first"));
+        template.toItemStack();
+        assertEquals(5, ItemMetrics.getMetaCopies());
+    }
+}
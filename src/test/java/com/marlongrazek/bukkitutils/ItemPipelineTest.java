@@ -0,0 +1,107 @@
+package com.marlongrazek.bukkitutils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemPipelineTest {
+
+    @Test
+    void mapKeepsTheSourceOrder() throws InterruptedException {
+        List<Integer> source = IntStream.range(0, 200).boxed().collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Iterator<Integer> mapped = ItemPipeline.map(source.iterator(), value -> {
+                // finish out of order
+                sleep(ThreadLocalRandom.current().nextInt(3));
+                return value * 2;
+            }, 8, executor);
+
+            List<Integer> results = new ArrayList<>();
+            mapped.forEachRemaining(results::add);
+            assertEquals(source.stream().map(value -> value * 2).collect(Collectors.toList()), results);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void mapReadsAtMostOneWindowAhead() {
+        CountingIterator source = new CountingIterator(100);
+        Iterator<Integer> mapped = ItemPipeline.map(source, value -> value, 4, Runnable::run);
+
+        int consumed = 0;
+        while (mapped.hasNext()) {
+            mapped.next();
+            consumed++;
+            assertTrue(source.pulled - consumed <= 4, "pulled " + source.pulled + " after " + consumed);
+        }
+        assertEquals(100, consumed);
+        assertEquals(100, source.pulled);
+    }
+
+    @Test
+    void mapSkipsNullResults() {
+        Iterator<Integer> mapped = ItemPipeline.map(new CountingIterator(10), value -> value % 2 == 0 ? value : null,
+                3, Runnable::run);
+
+        List<Integer> results = new ArrayList<>();
+        mapped.forEachRemaining(results::add);
+        assertEquals(List.of(0, 2, 4, 6, 8), results);
+    }
+
+    @Test
+    void mapRethrowsTransformFailures() {
+        Iterator<Integer> mapped = ItemPipeline.map(new CountingIterator(10), value -> {
+            if (value == 5) throw new IllegalStateException("broken");
+            return value;
+        }, 2, Runnable::run);
+
+        for (int i = 0; i < 5; i++) mapped.next();
+        assertThrows(IllegalStateException.class, mapped::next);
+    }
+
+    @Test
+    void mapRejectsEmptyWindows() {
+        assertThrows(IllegalArgumentException.class, () -> ItemPipeline.map(new CountingIterator(1), value -> value, 0));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CountingIterator implements Iterator<Integer> {
+
+        private final int size;
+        private int pulled;
+
+        private CountingIterator(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pulled < size;
+        }
+
+        @Override
+        public Integer next() {
+            return pulled++;
+        }
+    }
+}
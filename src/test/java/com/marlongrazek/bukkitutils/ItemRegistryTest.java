@@ -0,0 +1,94 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemRegistryTest {
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    private final ItemRegistry registry = new ItemRegistry(TestServer.plugin("Shop"));
+
+    @Test
+    void clicksRunTheHandlerOfTheClickedItem() {
+        AtomicInteger clicks = new AtomicInteger();
+        ItemBuilder builder = new ItemBuilder("Buy", Material.DIAMOND);
+        registry.register(builder, event -> clicks.incrementAndGet());
+
+        Inventory inventory = TestServer.inventory(9);
+        inventory.setItem(3, builder.toItemStack());
+
+        assertTrue(registry.handle(TestServer.click(inventory, 3)));
+        assertFalse(registry.handle(TestServer.click(inventory, 4)));
+        assertEquals(1, clicks.get());
+    }
+
+    @Test
+    void registeringABuilderAgainKeepsItsEntry() {
+        AtomicInteger handler = new AtomicInteger();
+        ItemBuilder builder = new ItemBuilder("Buy", Material.DIAMOND);
+        int id = registry.register(builder, event -> handler.set(1));
+        ItemStack built = builder.toItemStack();
+
+        assertEquals(id, registry.register(builder, event -> handler.set(2)));
+        // the second registration did not use up an id
+        assertEquals(id + 1, registry.register(new ItemBuilder(Material.STONE)));
+
+        Inventory inventory = TestServer.inventory(9);
+        inventory.setItem(0, built);
+        registry.handle(TestServer.click(inventory, 0));
+        assertEquals(2, handler.get());
+    }
+
+    @Test
+    void reusedIdsDoNotResolveOldItems() {
+        ItemBuilder removed = new ItemBuilder("Old", Material.STONE);
+        int id = registry.register(removed);
+        ItemStack old = removed.toItemStack();
+        registry.unregister(id);
+
+        ItemBuilder added = new ItemBuilder("New", Material.STONE);
+        assertEquals(id, registry.register(added));
+
+        assertNull(registry.resolve(old));
+        assertSame(added, registry.getBuilder(added.toItemStack()));
+    }
+
+    @Test
+    void keyedItemsResolveInANewRegistry() {
+        ItemBuilder builder = new ItemBuilder("Shop", Material.PAPER);
+        registry.register("shop", builder);
+        ItemStack built = builder.toItemStack();
+
+        // a registry of a later run, where other builders took the ids first
+        ItemRegistry restarted = new ItemRegistry(TestServer.plugin("Shop"));
+        ItemBuilder other = new ItemBuilder(Material.STONE);
+        restarted.register(other);
+        ItemBuilder reloaded = new ItemBuilder("Shop", Material.PAPER);
+        restarted.register("shop", reloaded);
+
+        assertSame(reloaded, restarted.getBuilder(built));
+        assertNull(restarted.resolve(new ItemBuilder(Material.STONE).toItemStack()));
+    }
+
+    @Test
+    void buildersMoveToTheKeyTheyAreRegisteredUnder() {
+        ItemBuilder builder = new ItemBuilder("Shop", Material.PAPER);
+        registry.register("old", builder);
+        registry.register("new", builder);
+
+        assertNull(registry.get("old"));
+        assertSame(builder, registry.get("new").getBuilder());
+        assertEquals("new", registry.resolve(builder.toItemStack()).getKey());
+    }
+}
@@ -0,0 +1,80 @@
+package com.marlongrazek.bukkitutils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 0; value < 8; value++) histogram.record(value);
+
+        assertEquals(0, histogram.getPercentile(12.5));
+        assertEquals(3, histogram.getPercentile(50));
+        assertEquals(7, histogram.getPercentile(100));
+    }
+
+    @Test
+    void bucketsKeepThreeSignificantBits() {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+
+            // the first of two values reports the top of its bucket, which is at most an eighth above it
+            long reported = histogram.getPercentile(50);
+            assertTrue(reported >= value, "value " + value);
+            assertTrue(reported - value <= value / 8, "value " + value);
+
+            // and the next value starts a new bucket
+            LatencyHistogram next = new LatencyHistogram();
+            next.record(reported + 1);
+            next.record(Long.MAX_VALUE);
+            assertTrue(next.getPercentile(50) > reported, "value " + value);
+        }
+    }
+
+    @Test
+    void largestValueHasABucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+    }
+
+    @Test
+    void percentilesNeverExceedTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+
+        assertEquals(1000, histogram.getPercentile(99));
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getTotal());
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    @Test
+    void resetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(200);
+        assertEquals(2, histogram.getCount());
+        assertEquals(300, histogram.getTotal());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getTotal());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+}
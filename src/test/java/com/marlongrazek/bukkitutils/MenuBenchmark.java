@@ -0,0 +1,111 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Filling menus of one to six rows, either from a list of builders or page by page from a larger source.
+ * Like ItemBenchmark it runs against TestServer: mvn -Pbenchmark test-compile exec:exec -Djmh.args="MenuBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuBenchmark {
+
+    private static final Material[] MATERIALS = {Material.STONE, Material.DIAMOND, Material.PAPER};
+    private static final int ROWS = 1000;
+
+    private ItemFactory itemFactory;
+    private ItemMeta prototype;
+    private ItemStack stack;
+
+    @Setup
+    public void setup() {
+        TestServer.install();
+        itemFactory = Bukkit.getItemFactory();
+        prototype = itemFactory.getItemMeta(Material.STONE);
+        stack = new ItemStack(Material.STONE);
+    }
+
+    // buildAll starts every item of a material from a clone of one prototype instead of asking for a new meta
+    @Benchmark
+    public ItemMeta prototypeClone() {
+        return prototype.clone();
+    }
+
+    @Benchmark
+    public ItemMeta factoryMeta() {
+        return itemFactory.getItemMeta(Material.STONE);
+    }
+
+    @Benchmark
+    public ItemMeta stackMeta() {
+        return stack.getItemMeta();
+    }
+
+    // one menu, built at once or item by item
+    @Benchmark
+    public Inventory buildAll(Menu menu) {
+        ItemBuilder.buildAll(menu.builders, menu.inventory);
+        return menu.inventory;
+    }
+
+    @Benchmark
+    public Inventory buildEach(Menu menu) {
+        for (int slot = 0; slot < menu.builders.size(); slot++) menu.inventory.setItem(slot, menu.builders.get(slot).toItemStack());
+        return menu.inventory;
+    }
+
+    // every page of the source shown once, with nothing cached from the previous invocation
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Inventory showAllPages(Menu menu) {
+        menu.pages.refresh();
+        for (int page = 0; page < menu.pages.getPageCount(); page++) menu.pages.show(page, menu.inventory).join();
+        return menu.inventory;
+    }
+
+    @State(Scope.Thread)
+    public static class Menu {
+
+        @Param({"9", "27", "54"})
+        public int slots;
+
+        private List<ItemBuilder> builders;
+        private Inventory inventory;
+        private PagedMenu<Integer> pages;
+
+        @Setup
+        public void setup() {
+            TestServer.install();
+            builders = new ArrayList<>(slots);
+            for (int slot = 0; slot < slots; slot++) builders.add(entry(slot));
+            inventory = TestServer.inventory(slots);
+
+            List<Integer> rows = new ArrayList<>(ROWS);
+            for (int row = 0; row < ROWS; row++) rows.add(row);
+            // both executors run in place, so a page is built on the calling thread
+            Executor direct = Runnable::run;
+            pages = new PagedMenu<>(PagedMenu.DataSource.of(rows), Menu::entry, slots, 5, direct, direct);
+        }
+
+        private static ItemBuilder entry(int index) {
+            ItemBuilder builder = new ItemBuilder("\u00A76Item " + index, MATERIALS[index % MATERIALS.length]);
+            builder.setLore(List.of("\u00A77Price: " + index, "\u00A77Click to buy"));
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedMenuTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    @Test
+    void pagesFillTheirSlotsAndClearTheRest() {
+        PagedMenu<Integer> menu = new PagedMenu<>(PagedMenu.DataSource.of(List.of(1, 2, 3, 4, 5)),
+                row -> new ItemBuilder("Row " + row, Material.PAPER), 3, 5, DIRECT, DIRECT);
+        Inventory inventory = TestServer.inventory(9);
+        inventory.setItem(8, new ItemStack(Material.DIAMOND));
+
+        assertEquals(2, menu.getPageCount());
+        menu.show(1, inventory).join();
+
+        assertEquals("Row 4", inventory.getItem(0).getItemMeta().getDisplayName());
+        assertEquals("Row 5", inventory.getItem(1).getItemMeta().getDisplayName());
+        assertNull(inventory.getItem(2));
+        assertEquals(Material.DIAMOND, inventory.getItem(8).getType());
+    }
+
+    @Test
+    void failedLoadsOnlyDropThemselves() {
+        Queue<Runnable> worker = new ArrayDeque<>();
+        AtomicInteger loads = new AtomicInteger();
+        PagedMenu.DataSource<Integer> source = new PagedMenu.DataSource<>() {
+            @Override
+            public int size() {
+                return 2;
+            }
+
+            @Override
+            public List<Integer> get(int fromIndex, int toIndex) {
+                if (loads.getAndIncrement() == 0) throw new IllegalStateException("Database unavailable");
+                return List.of(1, 2).subList(fromIndex, toIndex);
+            }
+        };
+        PagedMenu<Integer> menu = new PagedMenu<>(source, row -> new ItemBuilder(Material.PAPER), 9, 5, worker::add, DIRECT);
+
+        CompletableFuture<ItemStack[]> failed = menu.getPage(0);
+        menu.refresh();
+        CompletableFuture<ItemStack[]> reloaded = menu.getPage(0);
+        while (!worker.isEmpty()) worker.poll().run();
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertSame(reloaded, menu.getPage(0));
+        assertEquals(2, reloaded.join().length);
+    }
+}
@@ -0,0 +1,68 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Material;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Click dispatch in a registry of 10,000 items, each click lands on another one. Runs against TestServer like
+ * ItemBenchmark: mvn -Pbenchmark test-compile exec:exec -Djmh.args="RegistryBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryBenchmark {
+
+    private static final int ITEMS = 10_000;
+
+    private ItemRegistry registry;
+    private ItemStack[] items;
+    private ItemStack unregistered;
+    private Inventory inventory;
+    private InventoryClickEvent click;
+    private int clicks;
+    private int next;
+
+    @Setup
+    public void setup() {
+        TestServer.install();
+        registry = new ItemRegistry(TestServer.plugin("Benchmark"));
+
+        items = new ItemStack[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            ItemBuilder builder = new ItemBuilder("Item " + i, Material.PAPER);
+            // every tenth entry has a key, like the items of a shop that outlive a restart
+            if (i % 10 == 0) registry.register("item-" + i, builder, event -> clicks++);
+            else registry.register(builder, event -> clicks++);
+            items[i] = builder.toItemStack();
+        }
+        unregistered = new ItemBuilder("Decoration", Material.PAPER).toItemStack();
+
+        inventory = TestServer.inventory(54);
+        click = TestServer.click(inventory, 0);
+    }
+
+    @Benchmark
+    public boolean dispatch() {
+        inventory.setItem(0, items[next++ % ITEMS]);
+        return registry.handle(click);
+    }
+
+    @Benchmark
+    public boolean dispatchUnregistered() {
+        inventory.setItem(0, unregistered);
+        return registry.handle(click);
+    }
+
+    @Benchmark
+    public ItemRegistry.Entry resolve() {
+        return registry.resolve(items[next++ % ITEMS]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.profile.PlayerProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkullTexturesTest {
+
+    private static final String TEXTURE = Base64.getEncoder().encodeToString(
+            "{\"textures\":{\"SKIN\":{\"url\":\"http://textures.minecraft.net/texture/1a2b3c\"}}}".getBytes(StandardCharsets.UTF_8));
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    @BeforeEach
+    void enableMetrics() {
+        SkullTextures.clearCache();
+        ItemMetrics.reset();
+        ItemMetrics.setEnabled(true);
+    }
+
+    @AfterEach
+    void disableMetrics() {
+        ItemMetrics.setEnabled(false);
+        ItemMetrics.reset();
+    }
+
+    @Test
+    void texturedBuildsShareOneProfile() {
+        PlayerProfile first = ownerProfile(texturedSkull());
+        PlayerProfile second = ownerProfile(texturedSkull());
+
+        assertSame(first, second);
+        assertEquals("http://textures.minecraft.net/texture/1a2b3c", first.getTextures().getSkin().toString());
+        assertNotSame(SkullTextures.fromTexture(TEXTURE), SkullTextures.fromTexture(TEXTURE));
+    }
+
+    @Test
+    void buildsDoNotCountAsLookups() {
+        ItemBuilder.Skull skull = new ItemBuilder.Skull("Head", Material.PLAYER_HEAD);
+        skull.setOwningPlayer(Bukkit.getOfflinePlayer(UUID.nameUUIDFromBytes(new byte[]{2})));
+        skull.toItemStack();
+        skull.toItemStack();
+
+        ItemMetrics.CacheStats stats = ItemMetrics.getCacheStats().get("skull-textures");
+        assertEquals(0, stats.getHits() + stats.getMisses());
+    }
+
+    private static ItemBuilder.Skull texturedSkull() {
+        ItemBuilder.Skull skull = new ItemBuilder.Skull("Head", Material.PLAYER_HEAD);
+        skull.setTexture(TEXTURE);
+        return skull;
+    }
+
+    private static PlayerProfile ownerProfile(ItemBuilder.Skull skull) {
+        return ((SkullMeta) skull.toItemStack().getItemMeta()).getOwnerProfile();
+    }
+}
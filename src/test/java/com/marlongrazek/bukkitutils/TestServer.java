@@ -0,0 +1,484 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Color;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.*;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.profile.PlayerProfile;
+import org.bukkit.profile.PlayerTextures;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.*;
+import java.util.logging.Logger;
+
+// an in-process stand-in for the server parts that building items needs: the item factory, its metas, offline players,
+// player profiles, plugins and inventories
+final class TestServer {
+
+    private static final Logger LOGGER = Logger.getLogger("TestServer");
+    private static final ItemFactory ITEM_FACTORY = proxy(ItemFactory.class, TestServer::itemFactory);
+
+    private TestServer() {
+    }
+
+    // Bukkit accepts a single server per class loader, so every test and benchmark shares this one
+    static synchronized void install() {
+        if (Bukkit.getServer() == null) Bukkit.setServer(proxy(Server.class, TestServer::server));
+    }
+
+    private static Object server(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getItemFactory":
+                return ITEM_FACTORY;
+            case "getLogger":
+                return LOGGER;
+            case "getName":
+                return "TestServer";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "1.18.1-R0.1-SNAPSHOT";
+            case "getOfflinePlayer":
+                return args[0] instanceof UUID ? offlinePlayer((UUID) args[0]) : null;
+            case "createPlayerProfile":
+                return playerProfile(args[0] instanceof UUID ? (UUID) args[0] : null,
+                        args[args.length - 1] instanceof String ? (String) args[args.length - 1] : null);
+            default:
+                return defaultValue(proxy, method, args);
+        }
+    }
+
+    private static OfflinePlayer offlinePlayer(UUID uuid) {
+        return proxy(OfflinePlayer.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "equals":
+                    return args[0] instanceof OfflinePlayer && uuid.equals(((OfflinePlayer) args[0]).getUniqueId());
+                case "hashCode":
+                    return uuid.hashCode();
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    // a chest-like inventory, stacks are stored as given like the server's own inventories store their copies
+    static Inventory inventory(int size) {
+        ItemStack[] slots = new ItemStack[size];
+        return proxy(Inventory.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getSize":
+                    return size;
+                case "getItem":
+                    return slots[(int) args[0]];
+                case "setItem":
+                    slots[(int) args[0]] = (ItemStack) args[1];
+                    return null;
+                case "getContents":
+                    return slots.clone();
+                case "setContents": {
+                    ItemStack[] contents = (ItemStack[]) args[0];
+                    if (contents.length > size)
+                        throw new IllegalArgumentException("Invalid inventory size; expected " + size + " or less");
+                    for (int slot = 0; slot < size; slot++) slots[slot] = slot < contents.length ? contents[slot] : null;
+                    return null;
+                }
+                case "clear":
+                    if (args == null) Arrays.fill(slots, null);
+                    else slots[(int) args[0]] = null;
+                    return null;
+                case "getViewers":
+                    return new ArrayList<>();
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    // profiles keep their textures as set, nothing is ever looked up
+    private static PlayerProfile playerProfile(UUID uuid, String name) {
+        PlayerTextures[] textures = {playerTextures(null)};
+        return proxy(PlayerProfile.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                    return name;
+                case "getTextures":
+                    return playerTextures(textures[0].getSkin());
+                case "setTextures":
+                    textures[0] = playerTextures(args[0] != null ? ((PlayerTextures) args[0]).getSkin() : null);
+                    return null;
+                case "isComplete":
+                    return uuid != null && name != null;
+                case "clone": {
+                    PlayerProfile clone = playerProfile(uuid, name);
+                    clone.setTextures(textures[0]);
+                    return clone;
+                }
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private static PlayerTextures playerTextures(URL skin) {
+        URL[] skins = {skin};
+        return proxy(PlayerTextures.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getSkin":
+                    return skins[0];
+                case "setSkin":
+                    skins[0] = (URL) args[0];
+                    return null;
+                case "isEmpty":
+                    return skins[0] == null;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    static Plugin plugin(String name) {
+        return proxy(Plugin.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "getLogger":
+                    return LOGGER;
+                case "isEnabled":
+                    return true;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    // a left click on a slot of the given top inventory
+    static InventoryClickEvent click(Inventory top, int slot) {
+        InventoryView view = new InventoryView() {
+            @Override
+            public Inventory getTopInventory() {
+                return top;
+            }
+
+            @Override
+            public Inventory getBottomInventory() {
+                return top;
+            }
+
+            @Override
+            public HumanEntity getPlayer() {
+                return null;
+            }
+
+            @Override
+            public InventoryType getType() {
+                return InventoryType.CHEST;
+            }
+
+            @Override
+            public String getTitle() {
+                return "Menu";
+            }
+        };
+        return new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, slot, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+    }
+
+    // the factory hands out one meta per call and treats a null meta like an empty one, as the server does
+    private static Object itemFactory(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getItemMeta":
+                return newMeta((Material) args[0]);
+            case "isApplicable":
+                return args[0] == null || Proxy.isProxyClass(args[0].getClass());
+            case "asMetaFor":
+            case "ensureServerConversions":
+                return args[0];
+            case "updateMaterial":
+                return args[1];
+            case "getDefaultLeatherColor":
+                return Color.fromRGB(0xA06540);
+            case "equals":
+                return args.length == 2 ? metaEquals((ItemMeta) args[0], (ItemMeta) args[1]) : proxy == args[0];
+            default:
+                return defaultValue(proxy, method, args);
+        }
+    }
+
+    static ItemMeta newMeta(Material material) {
+        Class<? extends ItemMeta> type = metaType(material);
+        return type != null ? proxy(type, new Meta(type)) : null;
+    }
+
+    private static Class<? extends ItemMeta> metaType(Material material) {
+        switch (material) {
+            case AIR:
+                return null;
+            case PLAYER_HEAD:
+            case PLAYER_WALL_HEAD:
+                return SkullMeta.class;
+            case POTION:
+            case SPLASH_POTION:
+            case LINGERING_POTION:
+            case TIPPED_ARROW:
+                return PotionMeta.class;
+            case WRITTEN_BOOK:
+            case WRITABLE_BOOK:
+                return BookMeta.class;
+            case ENCHANTED_BOOK:
+                return EnchantmentStorageMeta.class;
+            case FIREWORK_ROCKET:
+                return FireworkMeta.class;
+            case FIREWORK_STAR:
+                return FireworkEffectMeta.class;
+            case LEATHER_HELMET:
+            case LEATHER_CHESTPLATE:
+            case LEATHER_LEGGINGS:
+            case LEATHER_BOOTS:
+            case LEATHER_HORSE_ARMOR:
+                return LeatherArmorMeta.class;
+            case WHITE_BANNER:
+            case RED_BANNER:
+            case BLACK_BANNER:
+                return BannerMeta.class;
+            default:
+                return PlainMeta.class;
+        }
+    }
+
+    private static boolean metaEquals(ItemMeta meta, ItemMeta other) {
+        if (meta == other) return true;
+        if (meta == null) return handler(other).isEmpty();
+        if (other == null) return handler(meta).isEmpty();
+        return handler(meta).equals(handler(other));
+    }
+
+    private static Meta handler(ItemMeta meta) {
+        return (Meta) Proxy.getInvocationHandler(meta);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TestServer.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    // unknown calls answer like an empty object, object methods keep identity semantics
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                if (args.length == 1) return proxy == args[0];
+                break;
+            case "hashCode":
+                if (args == null) return System.identityHashCode(proxy);
+                break;
+            case "toString":
+                if (args == null) return method.getDeclaringClass().getSimpleName();
+                break;
+        }
+
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0D;
+        if (type == float.class) return 0F;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return '\0';
+        return null;
+    }
+
+    // the server gives every plain item a meta that is both damageable and repairable
+    interface PlainMeta extends org.bukkit.inventory.meta.Damageable, Repairable {
+
+        @Override
+        PlainMeta clone();
+    }
+
+    /*
+     * A meta keeps its properties in maps. Setters store by name, getters read them back, and list
+     * properties such as pages, patterns or effects are grown by their add methods. Enchantments,
+     * stored enchantments, item flags and persistent data get maps of their own.
+     */
+    private static final class Meta implements InvocationHandler {
+
+        private final Class<? extends ItemMeta> type;
+        private final Map<String, Object> properties = new HashMap<>();
+        private final Map<Enchantment, Integer> enchants = new LinkedHashMap<>();
+        private final Map<Enchantment, Integer> storedEnchants = new LinkedHashMap<>();
+        private final Set<ItemFlag> itemFlags = EnumSet.noneOf(ItemFlag.class);
+        private final Map<NamespacedKey, Object> data = new HashMap<>();
+
+        private Meta(Class<? extends ItemMeta> type) {
+            this.type = type;
+        }
+
+        private Meta copy() {
+            Meta copy = new Meta(type);
+            properties.forEach((name, value) -> copy.properties.put(name, value instanceof List ? new ArrayList<>((List<?>) value) : value));
+            copy.enchants.putAll(enchants);
+            copy.storedEnchants.putAll(storedEnchants);
+            copy.itemFlags.addAll(itemFlags);
+            copy.data.putAll(data);
+            return copy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            int arguments = args != null ? args.length : 0;
+
+            switch (name) {
+                case "clone":
+                    return proxy(type, copy());
+                case "equals":
+                    return args[0] != null && Proxy.isProxyClass(args[0].getClass())
+                            && Proxy.getInvocationHandler(args[0]) instanceof Meta && equals(Proxy.getInvocationHandler(args[0]));
+                case "hashCode":
+                    return hashCode();
+                case "toString":
+                    return type.getSimpleName() + properties;
+                case "getPersistentDataContainer":
+                    return proxy(PersistentDataContainer.class, this::container);
+                case "addItemFlags":
+                    itemFlags.addAll(Arrays.asList((ItemFlag[]) args[0]));
+                    return null;
+                case "removeItemFlags":
+                    itemFlags.removeAll(Arrays.asList((ItemFlag[]) args[0]));
+                    return null;
+                case "getItemFlags":
+                    return EnumSet.copyOf(itemFlags);
+                case "hasItemFlag":
+                    return itemFlags.contains(args[0]);
+            }
+
+            if (name.contains("StoredEnchant")) return enchant(storedEnchants, name.replace("StoredEnchant", "Enchant"), args);
+            if (name.contains("Enchant")) return enchant(enchants, name, args);
+
+            if (name.startsWith("set") && arguments == 1) {
+                Object value = args[0];
+                if (value instanceof Object[]) value = Arrays.asList((Object[]) value);
+                if (value instanceof Collection) value = new ArrayList<>((Collection<?>) value);
+                if (value == null) properties.remove(name.substring(3));
+                else properties.put(name.substring(3), value);
+                return result(method, true);
+            }
+            if (name.startsWith("get") && arguments == 0) {
+                Object value = properties.get(name.substring(3));
+                if (List.class.isAssignableFrom(method.getReturnType())) return value != null ? new ArrayList<>((List<?>) value) : new ArrayList<>();
+                return value != null ? value : defaultValue(proxy, method, args);
+            }
+            if (name.startsWith("is") && arguments == 0) return Boolean.TRUE.equals(properties.get(name.substring(2)));
+            if (name.startsWith("has") && arguments == 0) return present(properties.get(name.substring(3)));
+            if (name.startsWith("clear") && arguments == 0) return result(method, properties.remove(name.substring(5)) != null);
+
+            // addPage, addEffects, addCustomEffect and friends grow the list named after their plural
+            if (name.startsWith("add") && arguments >= 1) {
+                String property = name.substring(3);
+                if (!property.endsWith("s")) property += "s";
+                @SuppressWarnings("unchecked")
+                List<Object> list = (List<Object>) properties.computeIfAbsent(property, key -> new ArrayList<>());
+                if (args[0] instanceof Object[]) list.addAll(Arrays.asList((Object[]) args[0]));
+                else if (args[0] instanceof Iterable) ((Iterable<?>) args[0]).forEach(list::add);
+                else list.add(args[0]);
+                return result(method, true);
+            }
+
+            return defaultValue(proxy, method, args);
+        }
+
+        // mutators either return nothing or whether they changed something
+        private static Object result(Method method, boolean changed) {
+            return method.getReturnType() == boolean.class ? changed : null;
+        }
+
+        private static Object enchant(Map<Enchantment, Integer> enchants, String name, Object[] args) {
+            switch (name) {
+                case "addEnchant":
+                    return !Objects.equals(enchants.put((Enchantment) args[0], (Integer) args[1]), args[1]);
+                case "removeEnchant":
+                    return enchants.remove(args[0]) != null;
+                case "getEnchants":
+                    return new LinkedHashMap<>(enchants);
+                case "hasEnchants":
+                    return !enchants.isEmpty();
+                case "hasEnchant":
+                    return enchants.containsKey(args[0]);
+                case "getEnchantLevel":
+                    return enchants.getOrDefault(args[0], 0);
+                default:
+                    return false;
+            }
+        }
+
+        private Object container(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "set":
+                    data.put((NamespacedKey) args[0], args[2]);
+                    return null;
+                case "has":
+                    return data.containsKey(args[0]);
+                case "get":
+                    return data.get(args[0]);
+                case "getOrDefault":
+                    return data.getOrDefault(args[0], args[2]);
+                case "remove":
+                    data.remove(args[0]);
+                    return null;
+                case "getKeys":
+                    return new HashSet<>(data.keySet());
+                case "isEmpty":
+                    return data.isEmpty();
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        }
+
+        private static boolean present(Object value) {
+            return value != null && !(value instanceof Collection && ((Collection<?>) value).isEmpty());
+        }
+
+        private boolean isEmpty() {
+            return properties.values().stream().noneMatch(Meta::present)
+                    && enchants.isEmpty() && storedEnchants.isEmpty() && itemFlags.isEmpty() && data.isEmpty();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (!(object instanceof Meta)) return false;
+            Meta other = (Meta) object;
+            return type == other.type
+                    && properties.equals(other.properties)
+                    && enchants.equals(other.enchants)
+                    && storedEnchants.equals(other.storedEnchants)
+                    && itemFlags.equals(other.itemFlags)
+                    && data.equals(other.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, properties, enchants, storedEnchants, itemFlags, data);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.marlongrazek.bukkitutils;
+
+import org.bukkit.ChatColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextTemplateTest {
+
+    @Test
+    void replacesPlaceholders() {
+        TextTemplate template = TextTemplate.compile("{player} has {coins} coins");
+        Map<String, Object> values = Map.of("player", "Steve", "coins", 42);
+
+        assertEquals("Steve has 42 coins", template.render(values::get));
+        assertEquals(List.of("player", "coins"), template.getPlaceholders());
+    }
+
+    @Test
+    void keepsUnresolvedPlaceholders() {
+        TextTemplate template = TextTemplate.compile("Hello {player}, {unknown}");
+
+        assertEquals("Hello Steve, {unknown}", template.render(Map.of("player", "Steve")::get));
+    }
+
+    @Test
+    void keepsUnclosedBraces() {
+        TextTemplate template = TextTemplate.compile("a {b} {c");
+
+        assertEquals("a x {c", template.render(placeholder -> "x"));
+        assertEquals(List.of("b"), template.getPlaceholders());
+    }
+
+    @Test
+    void textWithoutPlaceholdersIsReturnedAsIs() {
+        TextTemplate template = TextTemplate.compile("plain");
+
+        assertFalse(template.hasPlaceholders());
+        assertSame(template.render(placeholder -> fail("nothing to resolve")), template.render(placeholder -> null));
+    }
+
+    @Test
+    void translatesColorCodesInLiteralsOnly() {
+        TextTemplate template = TextTemplate.compile("&a{name}&r");
+
+        assertEquals(ChatColor.COLOR_CHAR + "a&b" + ChatColor.COLOR_CHAR + "r", template.render(placeholder -> "&b"));
+    }
+
+    @Test
+    void resolversMayRenderOtherTemplates() {
+        TextTemplate inner = TextTemplate.compile("[{value}]");
+        TextTemplate outer = TextTemplate.compile("{a} and {b}");
+
+        assertEquals("[a] and [b]", outer.render(placeholder -> inner.render(value -> placeholder)));
+    }
+
+    @Test
+    void rendersIntoExistingBuilders() {
+        StringBuilder builder = new StringBuilder("> ");
+        TextTemplate.compile("{a}-{b}").renderTo(builder, placeholder -> placeholder.toUpperCase());
+
+        assertEquals("> A-B", builder.toString());
+    }
+
+    @Test
+    void rendersLines() {
+        List<TextTemplate> templates = TextTemplate.compile(List.of("{a}", "b", "{c}!"));
+
+        assertEquals(List.of("1", "b", "3!"), TextTemplate.render(templates, Map.of("a", 1, "c", 3)::get));
+    }
+}